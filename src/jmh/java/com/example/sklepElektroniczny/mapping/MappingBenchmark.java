@@ -0,0 +1,81 @@
+package com.example.sklepElektroniczny.mapping;
+
+import com.example.sklepElektroniczny.dtos.OrderDTO;
+import com.example.sklepElektroniczny.dtos.ProductDTO;
+import com.example.sklepElektroniczny.entity.*;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MappingBenchmark {
+
+    @Param({"reflective", "compiled"})
+    private String mode;
+
+    private ModelMapper mapper;
+    private Product product;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        mapper = mode.equals("compiled") ? new CompiledModelMapper() : new ModelMapper();
+
+        Category category = new Category(1L, "Laptopy", new ArrayList<>());
+        product = new Product();
+        product.setProductId(1L);
+        product.setProductName("Laptop Gamingowy");
+        product.setDescription("Wydajny laptop z kartą RTX");
+        product.setImage("default.png");
+        product.setQuantity(10);
+        product.setPrice(5000.0);
+        product.setDiscount(10.0);
+        product.setSpecialPrice(4500.0);
+        product.setCategory(category);
+
+        Address address = new Address("Kraków", "Długa", 5, "30-001");
+        address.setAddressId(3L);
+
+        Payment payment = new Payment("card", "pg-1", "success", "ok", "Stripe");
+        payment.setPaymentId(4L);
+
+        order = new Order();
+        order.setOrderId(2L);
+        order.setEmail("user1@example.com");
+        order.setOrderDate(LocalDate.now());
+        order.setTotalPrice(BigDecimal.valueOf(22500, 2));
+        order.setStatus("Order accepted");
+        order.setAddress(address);
+        order.setPayment(payment);
+
+        List<OrderElement> elements = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            OrderElement element = new OrderElement();
+            element.setOrderElementId(i);
+            element.setProduct(product);
+            element.setOrder(order);
+            element.setQuantity(1);
+            element.setDiscount(10.0);
+            element.setOrderedProductPrice(4500.0);
+            elements.add(element);
+        }
+        order.setOrderElements(elements);
+    }
+
+    @Benchmark
+    public ProductDTO productToDto() {
+        return mapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public OrderDTO orderToDto() {
+        return mapper.map(order, OrderDTO.class);
+    }
+}
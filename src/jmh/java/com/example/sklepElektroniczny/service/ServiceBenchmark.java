@@ -0,0 +1,206 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.SklepElektronicznyApplication;
+import com.example.sklepElektroniczny.dtos.CartDTO;
+import com.example.sklepElektroniczny.dtos.OrderDTO;
+import com.example.sklepElektroniczny.dtos.ProductResponse;
+import com.example.sklepElektroniczny.entity.*;
+import com.example.sklepElektroniczny.repository.*;
+import com.example.sklepElektroniczny.security.CustomUserDetails;
+import com.example.sklepElektroniczny.security.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths measured against a real Spring context on an in-memory H2 database.
+ * Calls run inside a transaction, as they do under open-session-in-view in a web request.
+ * Run with {@code ./gradlew jmhServices}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ServiceBenchmark {
+
+    private static final int PRODUCTS = 500;
+    private static final int PRODUCTS_IN_CART = 10;
+    private static final int ORDER_LINES = 5;
+    private static final String USER_EMAIL = "user1@example.com";
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private CartService cartService;
+    private OrderService orderService;
+    private JwtTokenUtil jwtTokenUtil;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate rolledBack;
+
+    private CustomUserDetails user;
+    private Long productOutsideCart;
+    private Order order;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(SklepElektronicznyApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.rabbitmq.listener.simple.auto-startup=false",
+                        "app.events.transport=in-memory")
+                .run();
+
+        productService = context.getBean(ProductService.class);
+        cartService = context.getBean(CartService.class);
+        // mapToDTO is package-private, so it is called on the target rather than through the proxy
+        orderService = (OrderService) AopProxyUtils.getSingletonTarget(context.getBean(OrderService.class));
+        jwtTokenUtil = context.getBean(JwtTokenUtil.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        rolledBack = new TransactionTemplate(transactionManager);
+
+        User user1 = context.getBean(UserRepository.class).findByUserName("user1").orElseThrow();
+        user = new CustomUserDetails(user1.getUserId(), user1.getUserName(), user1.getEmail(), user1.getPassword(), List.of());
+        token = jwtTokenUtil.generateTokenFromUsername(user1.getUserName());
+
+        List<Product> products = seedProducts();
+        seedCart(products.subList(0, PRODUCTS_IN_CART));
+        productOutsideCart = products.get(PRODUCTS_IN_CART).getProductId();
+        order = seedOrder(products.subList(0, ORDER_LINES));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    private List<Product> seedProducts() {
+        Category category = context.getBean(CategoryRepository.class).save(new Category(null, "Laptopy", null));
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Laptop " + i);
+            product.setDescription("Wydajny laptop numer " + i);
+            product.setImage("default.png");
+            product.setQuantity(1_000_000);
+            product.setPrice(5000.0 + i);
+            product.setDiscount(10.0);
+            product.setSpecialPrice(4500.0 + i);
+            product.setCategory(category);
+            products.add(product);
+        }
+        return context.getBean(ProductRepository.class).saveAll(products);
+    }
+
+    private void seedCart(List<Product> products) {
+        SecurityContextHolder.getContext().setAuthentication(authentication());
+        try {
+            products.forEach(product -> cartService.addItemToCart(product.getProductId(), 1));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private Order seedOrder(List<Product> products) {
+        Address address = context.getBean(AddressRepository.class).save(new Address("Kraków", "Długa", 5, "30-001"));
+        Payment payment = context.getBean(PaymentRepository.class).save(new Payment("card", "pg-1", "success", "ok", "Stripe"));
+
+        Order newOrder = new Order();
+        newOrder.setEmail(USER_EMAIL);
+        newOrder.setOrderDate(LocalDate.now());
+        newOrder.setTotalPrice(BigDecimal.valueOf(22500, 2));
+        newOrder.setStatus("Order accepted");
+        newOrder.setAddress(address);
+        newOrder.setPayment(payment);
+        for (Product product : products) {
+            OrderElement element = new OrderElement();
+            element.setProduct(product);
+            element.setOrder(newOrder);
+            element.setQuantity(1);
+            element.setDiscount(product.getDiscount());
+            element.setOrderedProductPrice(product.getSpecialPrice());
+            newOrder.getOrderElements().add(element);
+        }
+        Long orderId = context.getBean(OrderRepository.class).save(newOrder).getOrderId();
+
+        // Loaded once and fully initialized, so the mapping benchmark measures mapping only.
+        return readOnly.execute(status -> {
+            Order loaded = context.getBean(OrderRepository.class).findById(orderId).orElseThrow();
+            loaded.getOrderElements().forEach(element -> Hibernate.initialize(element.getProduct()));
+            Hibernate.initialize(loaded.getAddress());
+            Hibernate.initialize(loaded.getPayment());
+            return loaded;
+        });
+    }
+
+    private UsernamePasswordAuthenticationToken authentication() {
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    /** Authenticates each benchmark thread as {@code user1}; the security context is thread-local. */
+    @State(Scope.Thread)
+    public static class Caller {
+
+        @Setup(Level.Trial)
+        public void login(ServiceBenchmark shop) {
+            SecurityContextHolder.getContext().setAuthentication(shop.authentication());
+        }
+
+        @TearDown(Level.Trial)
+        public void logout() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public ProductResponse getAllProducts() {
+        return readOnly.execute(status ->
+                productService.getAllProducts(0, 50, "productId", "asc", null, null));
+    }
+
+    /** Adds one product to a cart already holding {@value #PRODUCTS_IN_CART}; rolled back so every call sees the same cart. */
+    @Benchmark
+    public CartDTO addItemToCart(Caller caller) {
+        return rolledBack.execute(status -> {
+            status.setRollbackOnly();
+            return cartService.addItemToCart(productOutsideCart, 1);
+        });
+    }
+
+    @Benchmark
+    public OrderDTO orderMapToDto() {
+        return orderService.mapToDTO(order);
+    }
+
+    @Benchmark
+    public Claims jwtParseClaims() {
+        return jwtTokenUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean jwtValidate() {
+        return jwtTokenUtil.validateJwtToken(token);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.sklepElektroniczny.loadtest;
+
+import com.example.sklepElektroniczny.entity.*;
+import com.example.sklepElektroniczny.repository.*;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seeds the catalogue and the load-test users straight through the repositories.
+ * All users share one password hash, so seeding does not spend minutes in BCrypt.
+ */
+class DataSeeder {
+
+    static final String PASSWORD = "loadPassword";
+
+    private static final String[] CATEGORIES = {"Laptopy", "Telefony", "Monitory", "Akcesoria"};
+
+    private final ApplicationContext context;
+
+    DataSeeder(ApplicationContext context) {
+        this.context = context;
+    }
+
+    /** Returns the ids of the seeded products. */
+    List<Long> seedProducts(int count) {
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        List<Category> categories = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            categories.add(categoryRepository.save(new Category(null, name, null)));
+        }
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setProductName("Produkt " + i);
+            product.setDescription("Opis produktu testowego numer " + i);
+            product.setImage("default.png");
+            product.setQuantity(10_000_000);
+            product.setPrice(100.0 + i % 900);
+            product.setDiscount(10.0);
+            product.setSpecialPrice(90.0 + i % 900);
+            product.setCategory(categories.get(i % categories.size()));
+            products.add(product);
+        }
+        return context.getBean(ProductRepository.class).saveAll(products).stream()
+                .map(Product::getProductId)
+                .toList();
+    }
+
+    /** Creates {@code count} users with one address each and returns them as shoppers. */
+    List<Shopper> seedUsers(int count) {
+        Role userRole = context.getBean(RoleRepository.class).findByRoleName(AppRole.ROLE_USER)
+                .orElseThrow(() -> new IllegalStateException("ROLE_USER has not been initialised"));
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User("load" + i, "load" + i + "@example.com", passwordHash);
+            user.setRoles(Set.of(userRole));
+            users.add(user);
+        }
+        users = context.getBean(UserRepository.class).saveAll(users);
+
+        List<Address> addresses = new ArrayList<>();
+        for (User user : users) {
+            Address address = new Address("Kraków", "Testowa", 1, "30-001");
+            address.setUser(user);
+            addresses.add(address);
+        }
+        addresses = context.getBean(AddressRepository.class).saveAll(addresses);
+
+        List<Shopper> shoppers = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            shoppers.add(new Shopper(users.get(i).getUserName(), addresses.get(i).getAddressId()));
+        }
+        return shoppers;
+    }
+
+    record Shopper(String username, Long addressId) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.sklepElektroniczny.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count per request type. Recording is lock-free; {@link #reset()}
+ * discards the warm-up phase and {@link #print} reports percentiles in milliseconds.
+ */
+class LatencyStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Recorder> recorders = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String request, long startNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        recorders.computeIfAbsent(request, key -> new Recorder(MAX_TRACKABLE_MICROS, 3))
+                .recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+        if (!success) {
+            errors.computeIfAbsent(request, key -> new LongAdder()).increment();
+        }
+    }
+
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        out.printf("%-14s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                "request", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        recorders.forEach((request, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            LongAdder failed = errors.get(request);
+            out.printf("%-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    request,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    failed == null ? 0 : failed.sum());
+        });
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
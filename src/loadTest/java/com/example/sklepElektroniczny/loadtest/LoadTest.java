@@ -0,0 +1,144 @@
+package com.example.sklepElektroniczny.loadtest;
+
+import com.example.sklepElektroniczny.SklepElektronicznyApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test. Starts an embedded PostgreSQL process, boots the application on a random
+ * port with the in-memory event transport instead of RabbitMQ, seeds products and users, and lets
+ * every simulated shopper loop through browse, add-to-cart and checkout over HTTP.
+ * Latency percentiles are printed per request type once the measured phase ends.
+ *
+ * <p>Run with {@code ./gradlew loadTest}; parameters are listed in {@link LoadTestConfig}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Load test: " + config);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = startApplication(postgres, config)) {
+
+            DataSeeder seeder = new DataSeeder(context);
+            List<Long> productIds = seeder.seedProducts(config.products());
+            List<DataSeeder.Shopper> shoppers = seeder.seedUsers(config.users());
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTest(config, "http://localhost:" + port, productIds, shoppers).run();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, LoadTestConfig config) {
+        return new SpringApplicationBuilder(SklepElektronicznyApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.jpa.show-sql=false",
+                        "spring.rabbitmq.listener.simple.auto-startup=false",
+                        "app.events.transport=in-memory",
+                        "spring.threads.virtual.enabled=" + config.virtualThreads())
+                .run();
+    }
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final List<Long> productIds;
+    private final List<DataSeeder.Shopper> shoppers;
+    private final LatencyStats stats = new LatencyStats();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile boolean running = true;
+
+    private LoadTest(LoadTestConfig config, String baseUrl, List<Long> productIds, List<DataSeeder.Shopper> shoppers) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.productIds = productIds;
+        this.shoppers = shoppers;
+    }
+
+    private void run() throws InterruptedException {
+        // One virtual thread per shopper on the driver side, so the driver never becomes the bottleneck.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            shoppers.forEach(shopper -> executor.submit(() -> shop(shopper)));
+
+            TimeUnit.SECONDS.sleep(config.warmupSeconds());
+            stats.reset();
+            long measuredFrom = System.nanoTime();
+            TimeUnit.SECONDS.sleep(config.durationSeconds());
+            running = false;
+            long elapsed = System.nanoTime() - measuredFrom;
+
+            System.out.println();
+            stats.print(System.out, elapsed);
+        }
+    }
+
+    private void shop(DataSeeder.Shopper shopper) {
+        ShopClient client = new ShopClient(http, objectMapper, baseUrl, stats);
+        try {
+            client.signIn(shopper.username(), DataSeeder.PASSWORD);
+            while (running) {
+                try {
+                    iteration(client, shopper);
+                } catch (IOException e) {
+                    // Already counted as an error of the failed request; carry on with the next iteration.
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Shopper " + shopper.username() + " stopped: " + e);
+        }
+    }
+
+    private void iteration(ShopClient client, DataSeeder.Shopper shopper) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pages = Math.max(1, productIds.size() / config.pageSize());
+        client.browse(random.nextInt(pages), config.pageSize());
+
+        List<Long> picked = pickProducts(random);
+        client.viewProduct(picked.get(0));
+
+        Long cartId = null;
+        for (Long productId : picked) {
+            Long id = client.addToCart(productId, 1);
+            cartId = id != null ? id : cartId;
+        }
+
+        if (!client.checkout(shopper.addressId()) && cartId != null) {
+            // Leave the cart empty so the next iteration does not fail on already-added products.
+            for (Long productId : picked) {
+                client.removeFromCart(cartId, productId);
+            }
+        }
+    }
+
+    private List<Long> pickProducts(ThreadLocalRandom random) {
+        Set<Long> picked = new HashSet<>();
+        while (picked.size() < Math.min(config.cartSize(), productIds.size())) {
+            picked.add(productIds.get(random.nextInt(productIds.size())));
+        }
+        return new ArrayList<>(picked);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.sklepElektroniczny.loadtest;
+
+/**
+ * Load-test parameters, read from {@code load.*} system properties, e.g.
+ * {@code ./gradlew loadTest -Dload.users=200 -Dload.durationSeconds=120}.
+ */
+public record LoadTestConfig(
+        int users,
+        int products,
+        int cartSize,
+        int pageSize,
+        int warmupSeconds,
+        int durationSeconds,
+        boolean virtualThreads) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("load.users", 50),
+                Integer.getInteger("load.products", 2000),
+                Integer.getInteger("load.cartSize", 3),
+                Integer.getInteger("load.pageSize", 20),
+                Integer.getInteger("load.warmupSeconds", 15),
+                Integer.getInteger("load.durationSeconds", 60),
+                Boolean.getBoolean("load.virtualThreads"));
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + ", products=" + products + ", cartSize=" + cartSize + ", pageSize=" + pageSize
+                + ", warmup=" + warmupSeconds + "s, duration=" + durationSeconds + "s, virtualThreads=" + virtualThreads;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.sklepElektroniczny.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+/**
+ * HTTP driver for one simulated shopper. Every call is timed into {@link LatencyStats}
+ * under its request name; a non-2xx status counts as an error.
+ */
+class ShopClient {
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final LatencyStats stats;
+
+    private String jwtToken;
+
+    ShopClient(HttpClient http, ObjectMapper objectMapper, String baseUrl, LatencyStats stats) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    void signIn(String username, String password) throws IOException, InterruptedException {
+        JsonNode body = send("signin", post("/api/auth/signin", Map.of("username", username, "password", password)));
+        if (body == null) {
+            throw new IllegalStateException("Could not sign in as " + username);
+        }
+        jwtToken = body.get("jwtToken").asText();
+    }
+
+    void browse(int pageNumber, int pageSize) throws IOException, InterruptedException {
+        send("browse", get("/api/public/products?pageNumber=" + pageNumber + "&pageSize=" + pageSize));
+    }
+
+    void viewProduct(Long productId) throws IOException, InterruptedException {
+        send("product", get("/api/public/products/" + productId));
+    }
+
+    /** Returns the cart id, or {@code null} when the request failed. */
+    Long addToCart(Long productId, int quantity) throws IOException, InterruptedException {
+        JsonNode cart = send("add-to-cart", post("/api/carts/products/" + productId + "/quantity/" + quantity, null));
+        return cart == null ? null : cart.get("cartId").asLong();
+    }
+
+    void removeFromCart(Long cartId, Long productId) throws IOException, InterruptedException {
+        send("remove", authorized(HttpRequest.newBuilder(uri("/api/carts/" + cartId + "/product/" + productId)).DELETE()));
+    }
+
+    boolean checkout(Long addressId) throws IOException, InterruptedException {
+        Map<String, Object> order = Map.of(
+                "addressId", addressId,
+                "paymentGatewayName", "LoadTest",
+                "gatewayPaymentId", "lt-" + System.nanoTime(),
+                "gatewayStatus", "succeeded",
+                "gatewayResponseMessage", "ok");
+        return send("checkout", post("/api/order/users/payments/card", order)) != null;
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpRequest post(String path, Object body) throws IOException {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        return authorized(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(publisher));
+    }
+
+    private HttpRequest authorized(HttpRequest.Builder builder) {
+        if (jwtToken != null) {
+            builder.header("Authorization", "Bearer " + jwtToken);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /** Returns the parsed JSON body, or {@code null} for a non-2xx response. */
+    private JsonNode send(String name, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(name, start, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        stats.record(name, start, success);
+        if (!success) {
+            return null;
+        }
+        boolean json = response.headers().firstValue("Content-Type").map(type -> type.contains("json")).orElse(false);
+        return json ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+    }
+}
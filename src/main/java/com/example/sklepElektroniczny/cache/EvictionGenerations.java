@@ -0,0 +1,33 @@
+package com.example.sklepElektroniczny.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped per-key generation counters for caches that load outside their own lock.
+ * A loader notes the generation of its key before reading the database and stores the result
+ * only if no eviction bumped that generation in the meantime, so a value read before an update
+ * cannot be put back after the update evicted it. Keys sharing a stripe merely skip caching once.
+ */
+public final class EvictionGenerations {
+
+    private static final int STRIPES = 256;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public long current(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    public void bump(Object key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    public boolean unchanged(Object key, long generation) {
+        return generations.get(stripe(key)) == generation;
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
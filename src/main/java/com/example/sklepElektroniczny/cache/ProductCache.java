@@ -0,0 +1,91 @@
+package com.example.sklepElektroniczny.cache;
+
+import com.example.sklepElektroniczny.dtos.CacheStatsDTO;
+import com.example.sklepElektroniczny.dtos.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read cache for product details served by {@code GET /api/public/products/{id}}.
+ * Entries expire after a fixed TTL and are evicted explicitly whenever a product row is written.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final Cache<Long, ProductDTO> cache;
+    private final EvictionGenerations generations = new EvictionGenerations();
+
+    public ProductCache(@Value("${app.cache.products.max-size:10000}") long maxSize,
+                        @Value("${app.cache.products.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached product or loads and caches it. The loader runs outside the cache's
+     * internal map lock: a database call made while holding that monitor would pin the carrier
+     * thread when requests run on virtual threads. The loaded value is stored only if the product
+     * was not evicted while it was being read, so an update is never overwritten by older data.
+     */
+    public ProductDTO get(Long productId, Function<Long, ProductDTO> loader) {
+        ProductDTO cached = cache.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generations.current(productId);
+        ProductDTO loaded = loader.apply(productId);
+        cache.asMap().compute(productId, (id, present) -> generations.unchanged(id, generation) ? loaded : present);
+        return loaded;
+    }
+
+    /**
+     * Evicts the product now and, when called inside a transaction, once more after it completes,
+     * so a concurrent reader cannot re-cache the row as it was before the commit.
+     */
+    public void evict(Long productId) {
+        invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(productId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long productId) {
+        // Bumped before the removal, so a load that started earlier cannot store its result afterwards.
+        generations.bump(productId);
+        cache.invalidate(productId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate(),
+                cache.estimatedSize());
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.sklepElektroniczny.configuration;
 
+import com.example.sklepElektroniczny.mapping.CompiledModelMapper;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class AppConfiguration {
 
+    public static final String MAPPING_MODE_REFLECTIVE = "reflective";
+
     @Bean
-    public ModelMapper modelMapper(){
-        return new ModelMapper();
+    public ModelMapper modelMapper(@Value("${app.mapping.mode:compiled}") String mappingMode){
+        if (MAPPING_MODE_REFLECTIVE.equalsIgnoreCase(mappingMode)) {
+            return new ModelMapper();
+        }
+        return new CompiledModelMapper();
     }
 }
@@ -7,4 +7,7 @@ public class AppConstants {
     public static final String SORT_CATEGORIES_BY = "categoryId";
     public static final String SORT_PRODUCTS_BY = "productId";
     public static final String SORT_DIRECTION = "asc";
+    public static final String SORT_ORDERS_BY = "orderId";
+    public static final String SORT_ORDERS_DIRECTION = "desc";
+    public static final String PRICE_BUCKET_SIZE = "500";
 }
@@ -1,17 +1,124 @@
 package com.example.sklepElektroniczny.configuration;
 
-import org.springframework.amqp.core.Queue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
-    public static final String QUEUE_NAME = "productQueue";
+    public static final String EVENTS_EXCHANGE = "shop.events";
+
+    /**
+     * Product and stock events are broadcast: every instance binds its own queue to these keys,
+     * because each one keeps a local product cache and search index that must see every change.
+     */
+    public static final List<String> CATALOG_ROUTING_KEYS = List.of("product.#", "stock.#");
+    public static final String CATALOG_QUEUE_PREFIX = "shop.catalog.node.";
+
+    public static final String ORDER_QUEUE = "shop.order.events";
+    public static final String CART_QUEUE = "shop.cart.events";
+
+    public static final String DEAD_LETTER_EXCHANGE = "shop.events.dlx";
+    public static final String DEAD_LETTER_SUFFIX = ".dlq";
+
+    private static final String EVENTS_PACKAGE = "com.example.sklepElektroniczny.events";
 
     @Bean
-    public Queue productQueue() {
-        return new Queue(QUEUE_NAME, false);
+    public TopicExchange eventsExchange() {
+        return new TopicExchange(EVENTS_EXCHANGE, true, false);
+    }
+
+    /**
+     * Server-named, exclusive and auto-delete: the queue lives as long as this instance's connection,
+     * so no other instance competes for its messages and nothing piles up after a node goes away.
+     */
+    @Bean
+    public AnonymousQueue catalogBroadcastQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(CATALOG_QUEUE_PREFIX));
+    }
+
+    @Bean
+    public Queue orderQueue() {
+        return eventQueue(ORDER_QUEUE);
+    }
+
+    @Bean
+    public Queue cartQueue() {
+        return eventQueue(CART_QUEUE);
+    }
+
+    /**
+     * Shared, durable queues for work that must happen once across all instances.
+     * Rejected messages are routed by the broker to the dead-letter exchange under the name
+     * of the queue they came from, and end up in that queue's {@code .dlq} twin.
+     */
+    private static Queue eventQueue(String name) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                .deadLetterRoutingKey(name)
+                .build();
     }
-}
 
+    @Bean
+    public DirectExchange deadLetterExchange() {
+        return new DirectExchange(DEAD_LETTER_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Declarables deadLetterQueues(DirectExchange deadLetterExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : List.of(ORDER_QUEUE, CART_QUEUE)) {
+            Queue deadLetterQueue = QueueBuilder.durable(queue + DEAD_LETTER_SUFFIX).build();
+            declarables.add(deadLetterQueue);
+            declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(queue));
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public Declarables eventBindings(TopicExchange eventsExchange, AnonymousQueue catalogBroadcastQueue,
+                                     Queue orderQueue, Queue cartQueue) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String routingKey : CATALOG_ROUTING_KEYS) {
+            declarables.add(BindingBuilder.bind(catalogBroadcastQueue).to(eventsExchange).with(routingKey));
+        }
+        declarables.add(BindingBuilder.bind(orderQueue).to(eventsExchange).with("order.#"));
+        declarables.add(BindingBuilder.bind(cartQueue).to(eventsExchange).with("cart.#"));
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Whether an event with this routing key is delivered through the per-instance catalog queue.
+     */
+    public static boolean isCatalogEvent(String routingKey) {
+        return routingKey != null && (routingKey.startsWith("product.") || routingKey.startsWith("stock."));
+    }
+
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper, EVENTS_PACKAGE);
+    }
+
+    /**
+     * Listener containers are tuned through {@code spring.rabbitmq.listener.simple.*}
+     * (concurrency, prefetch, batch size); listeners receive whole batches of messages.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
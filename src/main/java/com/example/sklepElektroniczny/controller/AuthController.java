@@ -34,19 +34,22 @@ public class AuthController {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder encoder;
+    private final UserPrincipalCache userPrincipalCache;
 
     public AuthController(
             JwtTokenUtil jwtTokenUtil,
             AuthenticationManager authenticationManager,
             UserRepository userRepository,
             RoleRepository roleRepository,
-            PasswordEncoder encoder
+            PasswordEncoder encoder,
+            UserPrincipalCache userPrincipalCache
     ) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.encoder = encoder;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Operation(summary = "Sign in user", description = "Authenticates the user and returns JWT token and cookie.")
@@ -145,6 +148,7 @@ public class AuthController {
 
         user.setRoles(roles);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getUserName());
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
@@ -1,19 +1,28 @@
 package com.example.sklepElektroniczny.controller;
 
+import com.example.sklepElektroniczny.configuration.AppConstants;
 import com.example.sklepElektroniczny.dtos.OrderDTO;
+import com.example.sklepElektroniczny.dtos.OrderFilter;
 import com.example.sklepElektroniczny.dtos.OrderRequestDTO;
 import com.example.sklepElektroniczny.dtos.StatusUpdateRequest;
+import com.example.sklepElektroniczny.service.OrderExportService;
 import com.example.sklepElektroniczny.service.OrderService;
 import com.example.sklepElektroniczny.util.AuthUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDate;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -21,10 +30,12 @@ public class OrderController {
 
     private final OrderService orderService;
     private final AuthUtil authUtil;
+    private final OrderExportService orderExportService;
 
-    public OrderController(OrderService orderService, AuthUtil authUtil) {
+    public OrderController(OrderService orderService, AuthUtil authUtil, OrderExportService orderExportService) {
         this.orderService = orderService;
         this.authUtil = authUtil;
+        this.orderExportService = orderExportService;
     }
 
     @Operation(summary = "Zloz zamowienie")
@@ -54,16 +65,53 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByEmail(emailId));
     }
 
-    @Operation(summary = "Pobierz wszystkie zamowienia (dla administratora)")
+    @Operation(summary = "Pobierz zamowienia stronicowane i filtrowane (dla administratora)")
     @GetMapping("/admin/orders")
-    public ResponseEntity<?> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(
+            @Parameter(description = "Status zamowienia", example = "Order accepted") @RequestParam(name = "status", required = false) String status,
+            @Parameter(description = "Email klienta", example = "user1@example.com") @RequestParam(name = "email", required = false) String email,
+            @Parameter(description = "Data od (wlacznie)", example = "2025-01-01") @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Data do (wlacznie)", example = "2025-12-31") @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_ORDERS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDERS_DIRECTION, required = false) String sortOrder) {
         if (!authUtil.isCurrentUserAdmin() && !authUtil.isCurrentUserWorker()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Brak uprawnien");
         }
-        System.out.println("Uzytkownik jest adminem/workiem: " + authUtil.getCurrentUserEmail());
-        List<OrderDTO> allOrders = orderService.getAllOrders();
-        System.out.println("Ilosc zamowien do zwrocenia: " + allOrders.size());
-        return ResponseEntity.ok(allOrders);
+        OrderFilter filter = new OrderFilter(status, email, from, to);
+        return ResponseEntity.ok(orderService.getAllOrders(pageNumber, pageSize, sortBy, sortOrder, filter));
+    }
+
+    @Operation(summary = "Eksportuj zamowienia strumieniowo jako CSV lub NDJSON (dla administratora)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Eksport jest przesylany strumieniowo"),
+            @ApiResponse(responseCode = "400", description = "Nieobslugiwany format")
+    })
+    @GetMapping("/admin/orders/export")
+    public WebAsyncTask<ResponseEntity<String>> exportOrders(
+            @Parameter(description = "Format eksportu: csv lub ndjson", example = "csv") @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "email", required = false) String email,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) {
+        if (!authUtil.isCurrentUserAdmin() && !authUtil.isCurrentUserWorker()) {
+            return new WebAsyncTask<>(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).body("Brak uprawnien"));
+        }
+        OrderExportService.Format exportFormat = OrderExportService.parseFormat(format);
+        OrderFilter filter = new OrderFilter(status, email, from, to);
+
+        boolean csv = exportFormat == OrderExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"");
+
+        // a long export gets its own timeout instead of raising spring.mvc.async.request-timeout for every request;
+        // the body is written straight to the response, so the task has no entity to return
+        return new WebAsyncTask<>(orderExportService.timeoutMillis(), () -> {
+            orderExportService.export(filter, exportFormat, response.getOutputStream());
+            return null;
+        });
     }
 
 
@@ -1,9 +1,13 @@
 package com.example.sklepElektroniczny.controller;
 
 import com.example.sklepElektroniczny.configuration.AppConstants;
+import com.example.sklepElektroniczny.dtos.CacheStatsDTO;
+import com.example.sklepElektroniczny.dtos.ProductCursorResponse;
 import com.example.sklepElektroniczny.dtos.ProductDTO;
+import com.example.sklepElektroniczny.dtos.ProductFacetsDTO;
 import com.example.sklepElektroniczny.dtos.ProductResponse;
 import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.service.ProductFacetService;
 import com.example.sklepElektroniczny.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,10 +27,12 @@ import java.io.IOException;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductFacetService productFacetService;
 
     @Autowired
-    public ProductController(ProductService productService){
+    public ProductController(ProductService productService, ProductFacetService productFacetService){
         this.productService = productService;
+        this.productFacetService = productFacetService;
     }
 
     @Operation(summary = "Dodaj nowy produkt do kategorii")
@@ -61,6 +67,39 @@ public class ProductController {
         return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
+    @Operation(summary = "Pobierz liczby produktów w kategoriach i przedziałach cenowych")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fasety zostały pobrane pomyślnie"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowa szerokość przedziału cenowego")
+    })
+    @GetMapping("/public/products/facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+            @RequestParam(name = "keyword", required = false) String keyword,
+            @Parameter(description = "Szerokość przedziału cenowego", example = "500") @RequestParam(name = "priceBucketSize", defaultValue = AppConstants.PRICE_BUCKET_SIZE, required = false) Double priceBucketSize
+    ){
+        return new ResponseEntity<>(productFacetService.getFacets(keyword, priceBucketSize), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Pobierz produkty stronicowane kursorem")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produkty zostały pobrane pomyślnie"),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy kursor lub pole sortowania")
+    })
+    @GetMapping("/public/products/cursor")
+    public ResponseEntity<ProductCursorResponse> getProductsByCursor(
+            @Parameter(description = "Kursor zwrócony w polu nextCursor poprzedniej strony") @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "keyword", required = false) String keyword,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIRECTION, required = false) String sortOrder,
+            @Parameter(description = "Czy policzyć łączną liczbę produktów (dodatkowe zapytanie COUNT)") @RequestParam(name = "includeTotal", defaultValue = "false", required = false) boolean includeTotal
+    ){
+        ProductCursorResponse response = productService.getProductsByCursor(cursor, pageSize, sortBy, sortOrder, keyword, category, includeTotal);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @Operation(summary = "Pobierz produkt po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produkt został pobrany pomyślnie"),
@@ -139,4 +178,13 @@ public class ProductController {
         ProductDTO updatedProduct = productService.updateProductImage(productId, image);
         return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
     }
+
+    @Operation(summary = "Pobierz statystyki pamięci podręcznej produktów")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statystyki zostały pobrane pomyślnie")
+    })
+    @GetMapping("/admin/products/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getProductCacheStats() {
+        return new ResponseEntity<>(productService.getProductCacheStats(), HttpStatus.OK);
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.sklepElektroniczny.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CacheStatsDTO {
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+    private long size;
+}
@@ -0,0 +1,10 @@
+package com.example.sklepElektroniczny.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria of the admin order listing and export; {@code null} fields do not filter.
+ * {@code from} and {@code to} are inclusive order dates.
+ */
+public record OrderFilter(String status, String email, LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,17 @@
+package com.example.sklepElektroniczny.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PriceBucketDTO {
+
+    private double from;
+    private double to;
+    private long count;
+}
@@ -0,0 +1,21 @@
+package com.example.sklepElektroniczny.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProductCursorResponse {
+
+    private List<ProductDTO> content;
+    private Integer pageSize;
+    private String nextCursor;
+    private Long totalElements;
+    private boolean lastPage;
+}
@@ -0,0 +1,19 @@
+package com.example.sklepElektroniczny.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProductFacetsDTO {
+
+    private long totalElements;
+    private List<CategoryFacetDTO> categories;
+    private List<PriceBucketDTO> priceBuckets;
+}
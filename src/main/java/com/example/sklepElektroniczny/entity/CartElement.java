@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(name = "cart_element",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cart_element_cart_product", columnNames = {"cart_id", "product_id"}))
 @NoArgsConstructor
 @AllArgsConstructor
 @Setter
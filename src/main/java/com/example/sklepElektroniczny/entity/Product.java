@@ -34,10 +34,16 @@ public class Product {
     private double discount;
     private double specialPrice;
 
-    @ManyToOne
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @OneToMany(mappedBy = "product", cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @OneToMany(mappedBy = "product", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<CartElement> products = new ArrayList<>();
 }
@@ -0,0 +1,142 @@
+package com.example.sklepElektroniczny.events;
+
+import com.example.sklepElektroniczny.entity.Order;
+import com.example.sklepElektroniczny.entity.OrderElement;
+import com.example.sklepElektroniczny.entity.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Events published to the {@code shop.events} topic exchange. Every event carries a unique
+ * {@code eventId} that consumers use as an idempotency key, and is serialized as JSON with a
+ * short {@code type} discriminator.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = DomainEvent.ProductCreated.class, name = "ProductCreated"),
+        @JsonSubTypes.Type(value = DomainEvent.ProductUpdated.class, name = "ProductUpdated"),
+        @JsonSubTypes.Type(value = DomainEvent.ProductDeleted.class, name = "ProductDeleted"),
+        @JsonSubTypes.Type(value = DomainEvent.StockChanged.class, name = "StockChanged"),
+        @JsonSubTypes.Type(value = DomainEvent.OrderPlaced.class, name = "OrderPlaced"),
+        @JsonSubTypes.Type(value = DomainEvent.OrderStatusChanged.class, name = "OrderStatusChanged"),
+        @JsonSubTypes.Type(value = DomainEvent.CartChanged.class, name = "CartChanged")
+})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public sealed interface DomainEvent {
+
+    UUID eventId();
+
+    Instant occurredAt();
+
+    String routingKey();
+
+    record ProductCreated(UUID eventId, Instant occurredAt, Long productId, String productName, Long categoryId,
+                          double price, double specialPrice, Integer quantity) implements DomainEvent {
+
+        public static ProductCreated of(Product product) {
+            return new ProductCreated(UUID.randomUUID(), Instant.now(), product.getProductId(), product.getProductName(),
+                    product.getCategory() != null ? product.getCategory().getCategoryId() : null,
+                    product.getPrice(), product.getSpecialPrice(), product.getQuantity());
+        }
+
+        @Override
+        public String routingKey() {
+            return "product.created";
+        }
+    }
+
+    record ProductUpdated(UUID eventId, Instant occurredAt, Long productId, String productName,
+                          double price, double specialPrice, Integer quantity) implements DomainEvent {
+
+        public static ProductUpdated of(Product product) {
+            return new ProductUpdated(UUID.randomUUID(), Instant.now(), product.getProductId(), product.getProductName(),
+                    product.getPrice(), product.getSpecialPrice(), product.getQuantity());
+        }
+
+        @Override
+        public String routingKey() {
+            return "product.updated";
+        }
+    }
+
+    record ProductDeleted(UUID eventId, Instant occurredAt, Long productId) implements DomainEvent {
+
+        public static ProductDeleted of(Long productId) {
+            return new ProductDeleted(UUID.randomUUID(), Instant.now(), productId);
+        }
+
+        @Override
+        public String routingKey() {
+            return "product.deleted";
+        }
+    }
+
+    /**
+     * Relative stock change; {@code delta} is negative when stock was taken by an order.
+     */
+    record StockChanged(UUID eventId, Instant occurredAt, Long productId, int delta) implements DomainEvent {
+
+        public static StockChanged of(Long productId, int delta) {
+            return new StockChanged(UUID.randomUUID(), Instant.now(), productId, delta);
+        }
+
+        @Override
+        public String routingKey() {
+            return "stock.changed";
+        }
+    }
+
+    record OrderPlaced(UUID eventId, Instant occurredAt, Long orderId, String email, BigDecimal totalPrice,
+                       List<Line> lines) implements DomainEvent {
+
+        public record Line(Long productId, Integer quantity, double price) {
+        }
+
+        public static OrderPlaced of(Order order, List<OrderElement> elements) {
+            List<Line> lines = elements.stream()
+                    .map(element -> new Line(element.getProduct().getProductId(), element.getQuantity(),
+                            element.getOrderedProductPrice()))
+                    .toList();
+            return new OrderPlaced(UUID.randomUUID(), Instant.now(), order.getOrderId(), order.getEmail(),
+                    order.getTotalPrice(), lines);
+        }
+
+        @Override
+        public String routingKey() {
+            return "order.placed";
+        }
+    }
+
+    record OrderStatusChanged(UUID eventId, Instant occurredAt, Long orderId, String status) implements DomainEvent {
+
+        public static OrderStatusChanged of(Long orderId, String status) {
+            return new OrderStatusChanged(UUID.randomUUID(), Instant.now(), orderId, status);
+        }
+
+        @Override
+        public String routingKey() {
+            return "order.status-changed";
+        }
+    }
+
+    /**
+     * A cart line was added, changed or removed; {@code quantity} is the new amount, 0 when removed.
+     */
+    record CartChanged(UUID eventId, Instant occurredAt, Long cartId, Long productId, int quantity) implements DomainEvent {
+
+        public static CartChanged of(Long cartId, Long productId, int quantity) {
+            return new CartChanged(UUID.randomUUID(), Instant.now(), cartId, productId, quantity);
+        }
+
+        @Override
+        public String routingKey() {
+            return "cart.changed";
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.sklepElektroniczny.mapping;
+
+import com.example.sklepElektroniczny.dtos.*;
+import com.example.sklepElektroniczny.entity.*;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * ModelMapper with hand-written, reflection-free conversions for the entity/DTO pairs used on
+ * request paths. Pairs that are not registered here fall back to the regular ModelMapper.
+ */
+public class CompiledModelMapper extends ModelMapper {
+
+    private final Map<Class<?>, Map<Class<?>, Function<Object, ?>>> registered = new HashMap<>();
+
+    private final ClassValue<Map<Class<?>, Function<Object, ?>>> convertersBySource = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Function<Object, ?>> computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                Map<Class<?>, Function<Object, ?>> converters = registered.get(current);
+                if (converters != null) {
+                    return converters;
+                }
+            }
+            return Map.of();
+        }
+    };
+
+    public CompiledModelMapper() {
+        register(Product.class, ProductDTO.class, CompiledModelMapper::toProductDTO);
+        register(ProductDTO.class, Product.class, CompiledModelMapper::toProduct);
+        register(Cart.class, CartDTO.class, CompiledModelMapper::toCartDTO);
+        register(Order.class, OrderDTO.class, CompiledModelMapper::toOrderDTO);
+        register(OrderElement.class, OrderElementDTO.class, CompiledModelMapper::toOrderElementDTO);
+        register(Payment.class, PaymentDTO.class, CompiledModelMapper::toPaymentDTO);
+        register(Category.class, CategoryDTO.class, CompiledModelMapper::toCategoryDTO);
+        register(CategoryDTO.class, Category.class, CompiledModelMapper::toCategory);
+        register(Address.class, AddressDTO.class, CompiledModelMapper::toAddressDTO);
+        register(AddressDTO.class, Address.class, CompiledModelMapper::toAddress);
+    }
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        if (source != null) {
+            Function<Object, ?> converter = convertersBySource.get(source.getClass()).get(destinationType);
+            if (converter != null) {
+                return destinationType.cast(converter.apply(source));
+            }
+        }
+        return super.map(source, destinationType);
+    }
+
+    private <S, D> void register(Class<S> sourceType, Class<D> destinationType, Function<S, D> converter) {
+        registered.computeIfAbsent(sourceType, type -> new HashMap<>())
+                .put(destinationType, source -> converter.apply(sourceType.cast(source)));
+    }
+
+    static ProductDTO toProductDTO(Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setProductId(product.getProductId());
+        dto.setProductName(product.getProductName());
+        dto.setImage(product.getImage());
+        dto.setDescription(product.getDescription());
+        dto.setQuantity(product.getQuantity());
+        dto.setPrice(product.getPrice());
+        dto.setDiscount(product.getDiscount());
+        dto.setSpecialPrice(product.getSpecialPrice());
+        return dto;
+    }
+
+    static Product toProduct(ProductDTO dto) {
+        Product product = new Product();
+        product.setProductId(dto.getProductId());
+        product.setProductName(dto.getProductName());
+        product.setImage(dto.getImage());
+        product.setDescription(dto.getDescription());
+        product.setQuantity(dto.getQuantity());
+        product.setPrice(dto.getPrice());
+        product.setDiscount(dto.getDiscount());
+        product.setSpecialPrice(dto.getSpecialPrice());
+        return product;
+    }
+
+    static CartDTO toCartDTO(Cart cart) {
+        CartDTO dto = new CartDTO();
+        dto.setCartId(cart.getCartId());
+        dto.setTotalPrice(cart.getTotalPrice());
+        return dto;
+    }
+
+    static OrderDTO toOrderDTO(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setOrderId(order.getOrderId());
+        dto.setEmail(order.getEmail());
+        dto.setOrderDate(order.getOrderDate());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setStatus(order.getStatus());
+
+        List<OrderElementDTO> elements = new ArrayList<>();
+        if (order.getOrderElements() != null) {
+            order.getOrderElements().forEach(element -> elements.add(toOrderElementDTO(element)));
+        }
+        dto.setOrderElements(elements);
+
+        if (order.getPayment() != null) {
+            dto.setPayment(toPaymentDTO(order.getPayment()));
+        }
+        if (order.getAddress() != null) {
+            dto.setAddressId(order.getAddress().getAddressId());
+        }
+        return dto;
+    }
+
+    static OrderElementDTO toOrderElementDTO(OrderElement element) {
+        OrderElementDTO dto = new OrderElementDTO();
+        dto.setOrderElementId(element.getOrderElementId());
+        if (element.getProduct() != null) {
+            dto.setProduct(toProductDTO(element.getProduct()));
+        }
+        dto.setQuantity(element.getQuantity());
+        dto.setDiscount(element.getDiscount());
+        dto.setOrderedProductPrice(element.getOrderedProductPrice());
+        return dto;
+    }
+
+    static PaymentDTO toPaymentDTO(Payment payment) {
+        PaymentDTO dto = new PaymentDTO();
+        dto.setPaymentId(payment.getPaymentId());
+        dto.setMethod(payment.getMethod());
+        dto.setGatewayPaymentId(payment.getGatewayPaymentId());
+        dto.setGatewayStatus(payment.getGatewayStatus());
+        dto.setGatewayResponseMessage(payment.getGatewayResponseMessage());
+        dto.setPaymentGatewayName(payment.getPaymentGatewayName());
+        return dto;
+    }
+
+    static CategoryDTO toCategoryDTO(Category category) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setCategoryId(category.getCategoryId());
+        dto.setCategoryName(category.getCategoryName());
+        return dto;
+    }
+
+    static Category toCategory(CategoryDTO dto) {
+        Category category = new Category();
+        category.setCategoryId(dto.getCategoryId());
+        category.setCategoryName(dto.getCategoryName());
+        return category;
+    }
+
+    static AddressDTO toAddressDTO(Address address) {
+        AddressDTO dto = new AddressDTO();
+        dto.setAddressId(address.getAddressId());
+        dto.setCity(address.getCity());
+        dto.setStreet(address.getStreet());
+        dto.setNumber(address.getNumber());
+        dto.setPincode(address.getPincode());
+        return dto;
+    }
+
+    static Address toAddress(AddressDTO dto) {
+        Address address = new Address();
+        address.setAddressId(dto.getAddressId());
+        address.setCity(dto.getCity());
+        address.setStreet(dto.getStreet());
+        address.setNumber(dto.getNumber());
+        address.setPincode(dto.getPincode());
+        return address;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.sklepElektroniczny.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the layers below the controllers (controllers themselves are covered by Spring Boot's
+ * {@code http.server.requests}): every public service method, every repository call and every
+ * ModelMapper mapping. Tags are limited to class, method and type names to keep cardinality bounded,
+ * which also lets each timer be built once and looked up from a map on later calls.
+ */
+@Aspect
+@Component
+public class LayerMetricsAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.example.sklepElektroniczny.repository";
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<LayerTimerKey, Timer> layerTimers = new ConcurrentHashMap<>();
+    private final Map<MappingTimerKey, Timer> mappingTimers = new ConcurrentHashMap<>();
+
+    public LayerMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.example.sklepElektroniczny.service..*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return time("shop.service", "class", className, joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), LayerMetricsAspect::repositoryName);
+        return time("shop.repository", "repository", repository, joinPoint);
+    }
+
+    @Around("execution(public * org.modelmapper.ModelMapper.map(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        String source = args[0] == null ? "null" : args[0].getClass().getSimpleName();
+        String destination = args[1] instanceof Type type ? simpleName(type) : args[1].getClass().getSimpleName();
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(mappingTimers.computeIfAbsent(new MappingTimerKey(source, destination),
+                    key -> Timer.builder("shop.mapping")
+                            .description("ModelMapper mapping time")
+                            .tag("source", key.source())
+                            .tag("destination", key.destination())
+                            .register(registry)));
+        }
+    }
+
+    private Object time(String name, String ownerTag, String owner, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            LayerTimerKey timerKey = new LayerTimerKey(name, owner, joinPoint.getSignature().getName(), exception);
+            sample.stop(layerTimers.computeIfAbsent(timerKey, key -> Timer.builder(key.name())
+                    .tag(ownerTag, key.owner())
+                    .tag("method", key.method())
+                    .tag("exception", key.exception())
+                    .register(registry)));
+        }
+    }
+
+    /** The repository proxy implements our interface; inherited methods would otherwise all report CrudRepository. */
+    private static String repositoryName(Class<?> proxyClass) {
+        return Arrays.stream(proxyClass.getInterfaces())
+                .filter(type -> type.getPackageName().startsWith(REPOSITORY_PACKAGE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(proxyClass.getSimpleName());
+    }
+
+    private static String simpleName(Type type) {
+        return type instanceof Class<?> cls ? cls.getSimpleName() : type.getTypeName();
+    }
+
+    private record LayerTimerKey(String name, String owner, String method, String exception) {
+    }
+
+    private record MappingTimerKey(String source, String destination) {
+    }
+}
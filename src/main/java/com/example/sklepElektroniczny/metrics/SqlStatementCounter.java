@@ -0,0 +1,68 @@
+package com.example.sklepElektroniczny.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts every SQL statement Hibernate prepares, in total and for the request currently running
+ * on this thread (see {@link SqlStatementMetricsFilter}). Batched inserts count once per batch.
+ * Replaces {@code show-sql}: with the {@code com.example.sklepElektroniczny.sql} logger at DEBUG,
+ * a random sample of statements is logged instead of every one of them.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger sqlLogger = LoggerFactory.getLogger("com.example.sklepElektroniczny.sql");
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private final Counter statements;
+    private final double sampleRate;
+
+    public SqlStatementCounter(MeterRegistry registry,
+                               @Value("${app.logging.sql-sample-rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+        this.statements = Counter.builder("shop.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(registry);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        int[] current = CURRENT.get();
+        if (current != null) {
+            current[0]++;
+        }
+        if (sqlLogger.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sqlLogger.debug(sql);
+        }
+        return sql;
+    }
+
+    void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    /** Returns the statements counted since {@link #start()} and stops counting for this thread. */
+    int stop() {
+        int[] current = CURRENT.get();
+        CURRENT.remove();
+        return current == null ? 0 : current[0];
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decouples request threads from the broker. Messages are put on a bounded in-process queue
+ * (after commit when a transaction is active) and a background sender delivers them in batches
+ * through an {@link EventTransport}, retrying failed batches with exponential backoff.
+ * A batch that still fails after {@code app.events.retry.max-attempts} is sent one message at a time,
+ * and a message the broker keeps rejecting is dropped, so it cannot stall the queue behind it.
+ * Messages still queued when the JVM dies are lost, so consumers must tolerate gaps.
+ */
+@Component
+public class EventPublisher implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+
+    private static final long POLL_TIMEOUT_MS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final EventTransport transport;
+    private final BlockingQueue<OutboundMessage> queue;
+    private final int batchSize;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong undeliverable = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread sender;
+
+    public EventPublisher(EventTransport transport,
+                          @Value("${app.events.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.events.batch-size:100}") int batchSize,
+                          @Value("${app.events.retry.initial-backoff-ms:200}") long initialBackoffMs,
+                          @Value("${app.events.retry.max-backoff-ms:30000}") long maxBackoffMs,
+                          @Value("${app.events.retry.max-attempts:8}") int maxAttempts) {
+        this.transport = transport;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public void publish(OutboundMessage message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(message);
+                }
+            });
+        } else {
+            enqueue(message);
+        }
+    }
+
+    private void enqueue(OutboundMessage message) {
+        if (!queue.offer(message)) {
+            dropped.incrementAndGet();
+            logger.error("Event queue is full, dropping message for routing key {}", message.routingKey());
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public long sentCount() {
+        return sent.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long undeliverableCount() {
+        return undeliverable.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shop.events.publisher.pending", queue, BlockingQueue::size)
+                .description("Events waiting in the in-process queue")
+                .register(registry);
+        FunctionCounter.builder("shop.events.published", sent, AtomicLong::get)
+                .description("Events confirmed by the broker")
+                .register(registry);
+        FunctionCounter.builder("shop.events.dropped", dropped, AtomicLong::get)
+                .description("Events lost because the queue was full or the application stopped")
+                .register(registry);
+        FunctionCounter.builder("shop.events.publish.failures", failedAttempts, AtomicLong::get)
+                .description("Failed batch delivery attempts that were retried")
+                .register(registry);
+        FunctionCounter.builder("shop.events.undeliverable", undeliverable, AtomicLong::get)
+                .description("Events dropped after every delivery attempt failed")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sender = new Thread(this::sendLoop, "event-publisher");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = sender;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            current.interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Event publisher stopped with {} undelivered messages", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sendLoop() {
+        List<OutboundMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboundMessage first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void sendWithRetry(List<OutboundMessage> batch) throws InterruptedException {
+        if (trySend(batch, maxAttempts) || batch.size() == 1 || !running) {
+            return;
+        }
+        logger.warn("Batch of {} events failed {} times, sending them one by one", batch.size(), maxAttempts);
+        for (OutboundMessage message : batch) {
+            trySend(List.of(message), 1);
+        }
+    }
+
+    /**
+     * Sends the messages, retrying with backoff up to {@code attempts} times. Messages that are not
+     * delivered by then are counted and dropped; returns whether the send succeeded.
+     */
+    private boolean trySend(List<OutboundMessage> messages, int attempts) throws InterruptedException {
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transport.send(messages);
+                sent.addAndGet(messages.size());
+                return true;
+            } catch (Exception e) {
+                if (!running) {
+                    dropped.addAndGet(messages.size());
+                    logger.error("Dropping {} events during shutdown: {}", messages.size(), e.getMessage());
+                    return false;
+                }
+                failedAttempts.incrementAndGet();
+                if (attempt >= attempts) {
+                    if (messages.size() == 1) {
+                        undeliverable.incrementAndGet();
+                        logger.error("Dropping event for routing key {} after {} failed attempts: {}",
+                                messages.get(0).routingKey(), attempt, e.getMessage());
+                    }
+                    return false;
+                }
+                logger.warn("Publishing {} events failed, retrying in {} ms: {}", messages.size(), backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of messages to the broker. Implementations return only once the broker has
+ * confirmed every message of the batch and throw otherwise, so the caller can retry the batch.
+ */
+public interface EventTransport {
+
+    void send(List<OutboundMessage> batch) throws Exception;
+}
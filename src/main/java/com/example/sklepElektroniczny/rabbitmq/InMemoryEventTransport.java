@@ -0,0 +1,62 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import com.example.sklepElektroniczny.configuration.RabbitMQConfig;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker-free transport for benchmarks and load tests ({@code app.events.transport=in-memory}).
+ * Each batch is serialized with the same converter as the broker path and handed straight to
+ * {@link MessageConsumer}, so publishing and consuming cost stays in the measurement.
+ * Catalog events go to the per-instance listener, everything else to the shared-queue listener,
+ * as the broker bindings would route them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.transport", havingValue = "in-memory")
+public class InMemoryEventTransport implements EventTransport {
+
+    private final MessageConverter messageConverter;
+    private final MessageConsumer messageConsumer;
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    public InMemoryEventTransport(MessageConverter messageConverter, MessageConsumer messageConsumer) {
+        this.messageConverter = messageConverter;
+        this.messageConsumer = messageConsumer;
+    }
+
+    @Override
+    public void send(List<OutboundMessage> batch) {
+        List<Message> catalogMessages = new ArrayList<>();
+        List<Message> sharedMessages = new ArrayList<>();
+        for (OutboundMessage outbound : batch) {
+            (RabbitMQConfig.isCatalogEvent(outbound.routingKey()) ? catalogMessages : sharedMessages)
+                    .add(toMessage(outbound));
+        }
+        if (!catalogMessages.isEmpty()) {
+            messageConsumer.receiveCatalogEvents(catalogMessages);
+        }
+        if (!sharedMessages.isEmpty()) {
+            messageConsumer.receiveEvents(sharedMessages);
+        }
+        delivered.addAndGet(batch.size());
+    }
+
+    private Message toMessage(OutboundMessage outbound) {
+        MessageProperties properties = new MessageProperties();
+        properties.setReceivedExchange(outbound.exchange());
+        properties.setReceivedRoutingKey(outbound.routingKey());
+        return messageConverter.toMessage(outbound.payload(), properties);
+    }
+
+    public long deliveredCount() {
+        return delivered.get();
+    }
+}
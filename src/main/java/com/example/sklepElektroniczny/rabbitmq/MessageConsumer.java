@@ -1,15 +1,135 @@
 package com.example.sklepElektroniczny.rabbitmq;
 
+import com.example.sklepElektroniczny.cache.ProductCache;
 import com.example.sklepElektroniczny.configuration.RabbitMQConfig;
+import com.example.sklepElektroniczny.events.DomainEvent;
+import com.example.sklepElektroniczny.search.ProductSearchEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumes domain events in batches. Each event is handled at most once per idempotency window.
+ * On the shared order and cart queues an event that cannot be read or handled is sent to the
+ * dead-letter exchange on its own, so one poison message does not fail or redeliver the rest of its batch.
+ * Catalog events arrive on this instance's own queue and only refresh local state, so a failure
+ * there is logged and counted instead.
+ */
 @Service
-public class MessageConsumer {
+public class MessageConsumer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageConsumer.class);
+
+    static final String EXCEPTION_HEADER = "x-exception-message";
+
+    private final ProcessedEventRegistry processedEvents;
+    private final MessageConverter messageConverter;
+    private final RabbitTemplate rabbitTemplate;
+    private final ProductCache productCache;
+    private final ProductSearchEngine productSearchEngine;
+
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong catalogFailures = new AtomicLong();
 
-    @RabbitListener(queues = RabbitMQConfig.QUEUE_NAME)
-    public void receiveMessage(String message) {
-        System.out.println("📥 Otrzymano wiadomość z kolejki: " + message);
+    public MessageConsumer(ProcessedEventRegistry processedEvents, MessageConverter messageConverter,
+                           RabbitTemplate rabbitTemplate, ProductCache productCache,
+                           ProductSearchEngine productSearchEngine) {
+        this.processedEvents = processedEvents;
+        this.messageConverter = messageConverter;
+        this.rabbitTemplate = rabbitTemplate;
+        this.productCache = productCache;
+        this.productSearchEngine = productSearchEngine;
+    }
+
+    @RabbitListener(queues = "#{catalogBroadcastQueue.name}")
+    public void receiveCatalogEvents(List<Message> messages) {
+        for (Message message : messages) {
+            try {
+                receive(message);
+            } catch (RuntimeException e) {
+                catalogFailures.incrementAndGet();
+                logger.warn("Could not apply catalog event on this instance: {}", e.getMessage());
+            }
+        }
+    }
+
+    @RabbitListener(queues = {RabbitMQConfig.ORDER_QUEUE, RabbitMQConfig.CART_QUEUE})
+    public void receiveEvents(List<Message> messages) {
+        for (Message message : messages) {
+            try {
+                receive(message);
+            } catch (RuntimeException e) {
+                deadLetter(message, e);
+            }
+        }
     }
-}
 
+    private void receive(Message message) {
+        DomainEvent event = (DomainEvent) messageConverter.fromMessage(message);
+        if (!processedEvents.begin(event.eventId())) {
+            duplicates.incrementAndGet();
+            logger.debug("Skipping duplicate event {}", event.eventId());
+            return;
+        }
+        try {
+            handle(event);
+            handled.incrementAndGet();
+        } catch (RuntimeException e) {
+            processedEvents.forget(event.eventId());
+            throw e;
+        }
+    }
+
+    void handle(DomainEvent event) {
+        switch (event) {
+            case DomainEvent.ProductCreated created -> productSearchEngine.refresh(created.productId());
+            case DomainEvent.ProductUpdated updated -> refreshProduct(updated.productId());
+            case DomainEvent.ProductDeleted deleted -> refreshProduct(deleted.productId());
+            case DomainEvent.StockChanged changed -> refreshProduct(changed.productId());
+            default -> logger.debug("Received {} event {}", event.routingKey(), event.eventId());
+        }
+    }
+
+    private void refreshProduct(Long productId) {
+        productCache.evict(productId);
+        productSearchEngine.refresh(productId);
+    }
+
+    private void deadLetter(Message message, RuntimeException cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        deadLettered.incrementAndGet();
+        properties.setHeader(EXCEPTION_HEADER, String.valueOf(cause.getMessage()));
+        logger.warn("Dead-lettering message from {}: {}", queue, cause.getMessage());
+        rabbitTemplate.send(RabbitMQConfig.DEAD_LETTER_EXCHANGE, queue, message);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shop.events.consumed", handled, AtomicLong::get)
+                .description("Events handled successfully")
+                .register(registry);
+        FunctionCounter.builder("shop.events.duplicates", duplicates, AtomicLong::get)
+                .description("Redelivered events skipped by the idempotency check")
+                .register(registry);
+        FunctionCounter.builder("shop.events.dead-lettered", deadLettered, AtomicLong::get)
+                .description("Events sent to the dead-letter exchange")
+                .register(registry);
+        FunctionCounter.builder("shop.events.catalog.failed", catalogFailures, AtomicLong::get)
+                .description("Catalog events this instance could not apply to its cache or search index")
+                .register(registry);
+    }
+}
@@ -1,20 +1,19 @@
 package com.example.sklepElektroniczny.rabbitmq;
 
 import com.example.sklepElektroniczny.configuration.RabbitMQConfig;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.example.sklepElektroniczny.events.DomainEvent;
 import org.springframework.stereotype.Service;
 
 @Service
 public class MessageProducer {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final EventPublisher eventPublisher;
 
-    public MessageProducer(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public MessageProducer(EventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
     }
 
-    public void sendProductCreatedMessage(String message) {
-        rabbitTemplate.convertAndSend(RabbitMQConfig.QUEUE_NAME, message);
+    public void publish(DomainEvent event) {
+        eventPublisher.publish(new OutboundMessage(RabbitMQConfig.EVENTS_EXCHANGE, event.routingKey(), event));
     }
 }
-
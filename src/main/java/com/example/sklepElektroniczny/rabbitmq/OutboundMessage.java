@@ -0,0 +1,7 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+/**
+ * A message waiting in {@link EventPublisher} to be sent to the broker.
+ */
+public record OutboundMessage(String exchange, String routingKey, Object payload) {
+}
@@ -0,0 +1,51 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Remembers recently processed event ids so that redelivered or replayed events are handled once.
+ * The window is bounded in size and time; events older than the window may be processed again.
+ */
+@Component
+public class ProcessedEventRegistry implements MeterBinder {
+
+    private final Cache<UUID, Boolean> processed;
+
+    public ProcessedEventRegistry(@Value("${app.events.idempotency.max-size:100000}") long maxSize,
+                                  @Value("${app.events.idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.processed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Claims the event for processing; returns {@code false} when it was already claimed.
+     */
+    public boolean begin(UUID eventId) {
+        return processed.asMap().putIfAbsent(eventId, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Releases a claim after failed processing, so a later redelivery is not skipped.
+     */
+    public void forget(UUID eventId) {
+        processed.invalidate(eventId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shop.events.idempotency.size", processed, Cache::estimatedSize)
+                .description("Event ids remembered for duplicate detection")
+                .register(registry);
+    }
+}
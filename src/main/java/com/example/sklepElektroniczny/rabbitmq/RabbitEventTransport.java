@@ -0,0 +1,35 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes a whole batch on one channel and waits once for the publisher confirms of all of it.
+ * Requires {@code spring.rabbitmq.publisher-confirm-type=simple}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.transport", havingValue = "rabbit", matchIfMissing = true)
+public class RabbitEventTransport implements EventTransport {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long confirmTimeoutMs;
+
+    public RabbitEventTransport(RabbitTemplate rabbitTemplate,
+                                @Value("${app.events.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Override
+    public void send(List<OutboundMessage> batch) {
+        rabbitTemplate.invoke(operations -> {
+            batch.forEach(message -> operations.convertAndSend(message.exchange(), message.routingKey(), message.payload()));
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 @Repository
 public interface CartElementRepository extends JpaRepository<CartElement, Long> {
 
@@ -15,4 +17,15 @@ public interface CartElementRepository extends JpaRepository<CartElement, Long>
     @Modifying
     @Query("DELETE FROM CartElement ci WHERE ci.cart.id = ?1 AND ci.product.id = ?2")
     void deleteCartItemByProductIdAndCartId(Long cartId, Long productId);
+
+    @Modifying
+    @Query("DELETE FROM CartElement ci WHERE ci.cart.id = ?1")
+    int deleteAllByCartId(Long cartId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CartElement ci SET ci.price = ?2 WHERE ci.product.id = ?1 AND ci.price <> ?2")
+    int updatePriceForProduct(Long productId, Double newPrice);
+
+    @Query("SELECT COALESCE(SUM(CAST(ci.price AS BigDecimal) * ci.quantity), 0) FROM CartElement ci WHERE ci.cart.id = ?1")
+    BigDecimal sumLineTotalsByCartId(Long cartId);
 }
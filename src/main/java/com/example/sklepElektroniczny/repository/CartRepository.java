@@ -2,6 +2,7 @@ package com.example.sklepElektroniczny.repository;
 
 import com.example.sklepElektroniczny.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -15,6 +16,19 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("Select c FROM Cart c WHERE c.user.email = ?1 AND c.id = ?2")
     Cart findCartByEmailAndCartId(String emailId, Long cartId);
 
-    @Query("SELECT c FROM Cart c JOIN FETCH c.cartElements ci JOIN FETCH ci.product p WHERE p.id = ?1")
-    List<Cart> findCartsByProductId(Long productId);
+    @Query("SELECT DISTINCT ci.cart.id FROM CartElement ci WHERE ci.product.id = ?1")
+    List<Long> findCartIdsByProductId(Long productId);
+
+    @Query("SELECT CASE WHEN COUNT(ci) > 0 THEN true ELSE false END FROM CartElement ci WHERE ci.product.id = ?1")
+    boolean existsCartWithProduct(Long productId);
+
+    /**
+     * Adjusts the total of every cart holding the product by the price difference of its line.
+     * Must run before the lines themselves are repriced, while they still carry the old price.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = ROUND(c.totalPrice + " +
+            "(SELECT SUM((?2 - ci.price) * ci.quantity) FROM CartElement ci WHERE ci.cart = c AND ci.product.id = ?1), 2) " +
+            "WHERE c.id IN (SELECT ce.cart.id FROM CartElement ce WHERE ce.product.id = ?1 AND ce.price <> ?2)")
+    int repriceTotalsForProduct(Long productId, Double newPrice);
 }
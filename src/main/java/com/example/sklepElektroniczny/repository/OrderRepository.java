@@ -1,13 +1,32 @@
 package com.example.sklepElektroniczny.repository;
 
 import com.example.sklepElektroniczny.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+
+    /**
+     * A customer's order history with everything the order DTO needs (elements, their products,
+     * payment and address) fetched in a single query, instead of one lazy load per association.
+     */
+    @EntityGraph(attributePaths = {"orderElements", "orderElements.product", "payment", "address"})
     List<Order> findByEmail(String email);
 
+    /**
+     * Admin order pages join the to-one associations only; fetching the elements here would make
+     * Hibernate paginate in memory, so they are loaded in batches ({@code default_batch_fetch_size}).
+     */
+    @Override
+    @EntityGraph(attributePaths = {"payment", "address"})
+    Page<Order> findAll(Specification<Order> spec, Pageable pageable);
+
 }
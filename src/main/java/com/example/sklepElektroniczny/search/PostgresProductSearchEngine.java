@@ -0,0 +1,175 @@
+package com.example.sklepElektroniczny.search;
+
+import com.example.sklepElektroniczny.entity.Product;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search on PostgreSQL. {@code products.search_vector} is a generated column over the
+ * name (weight A) and description (weight B) with a GIN index (migration V3), so the database keeps
+ * it up to date on every write and {@link #index}/{@link #remove} have nothing to do.
+ * Every keyword word is matched as a prefix; relevance is {@code ts_rank}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "postgres")
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "productId", "p.product_id",
+            "productName", "lower(p.product_name)",
+            "price", "p.price",
+            "specialPrice", "p.special_price",
+            "discount", "p.discount",
+            "quantity", "p.quantity");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresProductSearchEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> search(String keyword, String categoryName, String sortBy, boolean ascending) {
+        String query = prefixQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT p.product_id" + fromWhere(query, categoryName, args) + orderBy(sortBy, ascending);
+        return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
+
+    /**
+     * Pages in the database, so only {@code limit} ids leave it whatever the number of matches.
+     */
+    @Override
+    public SearchPage page(String keyword, String categoryName, String sortBy, boolean ascending, int offset, int limit) {
+        String query = prefixQuery(keyword);
+        if (query == null) {
+            return new SearchPage(List.of(), 0);
+        }
+        List<Object> args = new ArrayList<>();
+        String fromWhere = fromWhere(query, categoryName, args);
+
+        Long total = jdbcTemplate.queryForObject("SELECT count(*)" + fromWhere, Long.class, args.toArray());
+        if (total == null || total <= offset) {
+            return new SearchPage(List.of(), total == null ? 0 : total);
+        }
+
+        args.add(limit);
+        args.add(offset);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT p.product_id" + fromWhere + orderBy(sortBy, ascending) + " LIMIT ? OFFSET ?",
+                Long.class, args.toArray());
+        return new SearchPage(ids, total);
+    }
+
+    @Override
+    public List<Long> seek(String keyword, String categoryName, String sortBy, boolean ascending,
+                           Comparable<?> afterValue, Long afterId, int limit) {
+        String query = prefixQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        String column = SORT_COLUMNS.getOrDefault(sortBy == null ? "" : sortBy, SORT_COLUMNS.get("productId"));
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT p.product_id").append(fromWhere(query, categoryName, args));
+        if (afterId != null) {
+            sql.append(seekCondition(column, ascending));
+            args.add(afterValue);
+            args.add(afterId);
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(column).append(direction).append(", p.product_id").append(direction)
+                .append(" LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    @Override
+    public long count(String keyword, String categoryName) {
+        String query = prefixQuery(keyword);
+        if (query == null) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>();
+        Long total = jdbcTemplate.queryForObject("SELECT count(*)" + fromWhere(query, categoryName, args),
+                Long.class, args.toArray());
+        return total == null ? 0 : total;
+    }
+
+    @Override
+    public SqlMatch sqlMatch(String keyword) {
+        String query = prefixQuery(keyword);
+        if (query == null) {
+            return new SqlMatch("FALSE", List.of());
+        }
+        return new SqlMatch("p.search_vector @@ to_tsquery('simple', ?)", List.of(query));
+    }
+
+    @Override
+    public void index(Product product) {
+        // search_vector is a generated column
+    }
+
+    @Override
+    public void remove(Long productId) {
+        // the row and its search_vector are gone with the product
+    }
+
+    private static String fromWhere(String query, String categoryName, List<Object> args) {
+        StringBuilder sql = new StringBuilder(" FROM to_tsquery('simple', ?) AS query, products p");
+        args.add(query);
+        boolean byCategory = categoryName != null && !categoryName.isEmpty();
+        if (byCategory) {
+            sql.append(" JOIN category c ON c.category_id = p.category_id");
+        }
+        sql.append(" WHERE p.search_vector @@ query");
+        if (byCategory) {
+            sql.append(" AND c.category_name = ?");
+            args.add(categoryName);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Row comparison past the cursor; the value goes through the same expression as the column,
+     * so {@code productName} compares {@code lower(...)} on both sides.
+     */
+    static String seekCondition(String column, boolean ascending) {
+        String value = column.startsWith("lower(") ? "lower(?)" : "?";
+        return " AND (" + column + ", p.product_id) " + (ascending ? ">" : "<") + " (" + value + ", ?)";
+    }
+
+    static String orderBy(String sortBy, boolean ascending) {
+        String column = sortBy == null ? null : SORT_COLUMNS.get(sortBy);
+        if (column == null) {
+            return " ORDER BY ts_rank(p.search_vector, query) DESC, p.product_id";
+        }
+        return " ORDER BY " + column + (ascending ? " ASC" : " DESC") + ", p.product_id";
+    }
+
+    /**
+     * Turns a keyword into a {@code tsquery} requiring every word as a prefix, e.g.
+     * {@code "Laptop Pro"} into {@code "laptop:* & pro:*"}. Only letters and digits reach the query,
+     * so user input cannot inject tsquery operators. Returns null when nothing searchable is left.
+     */
+    static String prefixQuery(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        String query = Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.sklepElektroniczny.search;
+
+import com.example.sklepElektroniczny.entity.Product;
+
+import java.util.List;
+
+/**
+ * Keyword search over products. The implementation is chosen with {@code app.search.backend}:
+ * {@code memory} (default) keeps an in-process trigram index, {@code postgres} queries a
+ * full-text {@code tsvector} column maintained by the database.
+ */
+public interface ProductSearchEngine {
+
+    String RELEVANCE = "relevance";
+
+    /**
+     * Returns ids of all products matching every word of the keyword, optionally restricted to a
+     * category name and ordered by a product field. Unknown sort fields fall back to relevance.
+     */
+    List<Long> search(String keyword, String categoryName, String sortBy, boolean ascending);
+
+    /**
+     * One slice of the {@link #search} result together with the total number of matches.
+     */
+    default SearchPage page(String keyword, String categoryName, String sortBy, boolean ascending, int offset, int limit) {
+        List<Long> matchingIds = search(keyword, categoryName, sortBy, ascending);
+        int fromIndex = Math.min(offset, matchingIds.size());
+        int toIndex = Math.min(fromIndex + limit, matchingIds.size());
+        return new SearchPage(matchingIds.subList(fromIndex, toIndex), matchingIds.size());
+    }
+
+    /**
+     * Keyset page for cursor pagination: at most {@code limit} matches ordered by a product field and then
+     * by id in the same direction, starting right after the position ({@code afterValue}, {@code afterId}),
+     * or from the first match when {@code afterId} is null. The product at that position need not exist
+     * any more, so a deleted or changed product does not restart or skip the listing.
+     */
+    List<Long> seek(String keyword, String categoryName, String sortBy, boolean ascending,
+                    Comparable<?> afterValue, Long afterId, int limit);
+
+    /**
+     * Number of products matching every word of the keyword, optionally within a category name.
+     */
+    long count(String keyword, String categoryName);
+
+    /**
+     * A condition on {@code products p} that selects the keyword matches inside a SQL statement, for
+     * backends whose index lives in the database. Null means the matches have to be fetched with
+     * {@link #search} and passed to the query as ids.
+     */
+    default SqlMatch sqlMatch(String keyword) {
+        return null;
+    }
+
+    /**
+     * Matches of the keyword counted per category id and price bucket {@code floor(specialPrice / bucketSize)},
+     * for backends that keep prices in process and can group the matches in one pass. Null means the counts
+     * come from SQL, through {@link #sqlMatch} or the ids returned by {@link #search}.
+     */
+    default List<FacetCount> facetCounts(String keyword, double bucketSize) {
+        return null;
+    }
+
+    /**
+     * Called after a product is created or updated.
+     */
+    void index(Product product);
+
+    /**
+     * Called after a product is deleted, or when a matched id no longer exists.
+     */
+    void remove(Long productId);
+
+    /**
+     * Called for product and stock events from any instance; re-reads the product so a local index
+     * catches up with writes made elsewhere. Backends that read the database directly need nothing.
+     */
+    default void refresh(Long productId) {
+    }
+
+    record SearchPage(List<Long> productIds, long totalElements) {
+    }
+
+    record SqlMatch(String predicate, List<Object> args) {
+    }
+
+    record FacetCount(Long categoryId, long bucket, long count) {
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.sklepElektroniczny.search;
+
+import com.example.sklepElektroniczny.entity.Category;
+import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.repository.CategoryRepository;
+import com.example.sklepElektroniczny.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product names and descriptions.
+ * Every indexed word is split into trigrams, so a keyword is resolved by intersecting
+ * posting lists instead of running {@code LIKE '%keyword%'} against the database.
+ * <p>
+ * Documents keep the category id rather than its name, which is looked up per query, so renaming a
+ * category needs no reindex. Changes are applied after the surrounding transaction commits, and every
+ * instance re-reads a product on its {@code product.*} and {@code stock.*} events (see {@link #refresh}),
+ * which keeps prices and stock current after writes made on other instances or by plain SQL.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "memory", matchIfMissing = true)
+public class ProductSearchIndex implements ProductSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    static final int GRAM_SIZE = 3;
+
+    private static final Set<String> SORT_FIELDS =
+            Set.of("productId", "productName", "price", "specialPrice", "discount", "quantity");
+
+    private static final int NAME_WORD_SCORE = 8;
+    private static final int NAME_PREFIX_SCORE = 4;
+    private static final int NAME_SUBSTRING_SCORE = 2;
+    private static final int DESCRIPTION_SCORE = 1;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductSearchIndex(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> products = productRepository.findAllWithCategory();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            products.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built with {} products", products.size());
+    }
+
+    @Override
+    public void index(Product product) {
+        if (product == null || product.getProductId() == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(product.getProductId());
+                addDocument(product);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long productId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * A rolled-back write must not reach the index, and searches must not see it before commit.
+     */
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    @Override
+    public void refresh(Long productId) {
+        productRepository.findWithCategoryById(productId)
+                .ifPresentOrElse(this::index, () -> remove(productId));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of products matching every word of the keyword, best matches first.
+     * Name hits outrank description hits; ties are broken by product id.
+     */
+    public List<Long> search(String keyword) {
+        return search(keyword, null, RELEVANCE, true);
+    }
+
+    /**
+     * Same as {@link #search(String)}, additionally restricted to a category name and ordered
+     * by one of the indexed product fields. Unknown sort fields fall back to relevance.
+     */
+    @Override
+    public List<Long> search(String keyword, String categoryName, String sortBy, boolean ascending) {
+        CategoryFilter category = categoryFilter(categoryName);
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = match(keyword, category);
+            Comparator<Long> order = fieldOrder(sortBy);
+            if (order == null) {
+                order = Comparator.<Long>comparingInt(scores::get).reversed();
+            } else if (!ascending) {
+                order = order.reversed();
+            }
+
+            List<Long> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort(order.thenComparing(Comparator.naturalOrder()));
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps only the {@code limit} best matches past the cursor in a heap instead of sorting every match.
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Long> seek(String keyword, String categoryName, String sortBy, boolean ascending,
+                           Comparable<?> afterValue, Long afterId, int limit) {
+        String field = sortBy != null && SORT_FIELDS.contains(sortBy) ? sortBy : "productId";
+        Comparable cursorKey = afterValue instanceof String name ? name.toLowerCase(Locale.ROOT) : afterValue;
+        Comparator<Long> order = fieldOrder(field).thenComparing(Comparator.naturalOrder());
+        if (!ascending) {
+            order = order.reversed();
+        }
+
+        CategoryFilter category = categoryFilter(categoryName);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Long> page = new PriorityQueue<>(order.reversed());
+            for (Long id : match(keyword, category).keySet()) {
+                if (afterId != null) {
+                    int comparison = ((Comparable) sortKey(id, field)).compareTo(cursorKey);
+                    if (comparison == 0) {
+                        comparison = id.compareTo(afterId);
+                    }
+                    if (ascending ? comparison <= 0 : comparison >= 0) {
+                        continue;
+                    }
+                }
+                page.offer(id);
+                if (page.size() > limit) {
+                    page.poll();
+                }
+            }
+            List<Long> result = new ArrayList<>(page);
+            result.sort(order);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count(String keyword, String categoryName) {
+        CategoryFilter category = categoryFilter(categoryName);
+        lock.readLock().lock();
+        try {
+            return match(keyword, category).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Groups the matches by the category id and special price kept in each document, so facets over a
+     * keyword need no query per chunk of matching ids.
+     */
+    @Override
+    public List<FacetCount> facetCounts(String keyword, double bucketSize) {
+        Map<FacetKey, Long> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : match(keyword, null).keySet()) {
+                IndexedProduct document = documents.get(id);
+                long bucket = (long) Math.floor(document.specialPrice() / bucketSize);
+                counts.merge(new FacetKey(document.categoryId(), bucket), 1L, Long::sum);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCount(entry.getKey().categoryId(), entry.getKey().bucket(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Scores of the products matching every word of the keyword; the caller holds the read lock.
+     */
+    private Map<Long, Integer> match(String keyword, CategoryFilter category) {
+        List<String> terms = tokenize(keyword);
+        if (terms.isEmpty() || (category != null && category.categoryId() == null)) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return scores;
+            }
+        }
+
+        if (category != null) {
+            scores.keySet().removeIf(id -> !category.categoryId().equals(documents.get(id).categoryId()));
+        }
+        return scores;
+    }
+
+    /**
+     * Null when no category is requested; a filter with a null id when no category has that name.
+     */
+    private CategoryFilter categoryFilter(String categoryName) {
+        if (categoryName == null || categoryName.isEmpty()) {
+            return null;
+        }
+        Category category = categoryRepository.findByCategoryName(categoryName);
+        return new CategoryFilter(category != null ? category.getCategoryId() : null);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Long> fieldOrder(String sortBy) {
+        if (sortBy == null || !SORT_FIELDS.contains(sortBy)) {
+            return null;
+        }
+        return (left, right) -> ((Comparable) sortKey(left, sortBy)).compareTo(sortKey(right, sortBy));
+    }
+
+    /**
+     * The value a product is ordered by for one of {@link #SORT_FIELDS}.
+     */
+    private Comparable<?> sortKey(Long id, String sortBy) {
+        IndexedProduct document = documents.get(id);
+        return switch (sortBy) {
+            case "productId" -> id;
+            case "productName" -> document.sortName();
+            case "price" -> document.price();
+            case "specialPrice" -> document.specialPrice();
+            case "discount" -> document.discount();
+            case "quantity" -> document.quantity();
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+
+    private Map<Long, Integer> scoreTerm(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Long candidate : candidates(term)) {
+            IndexedProduct document = documents.get(candidate);
+            int score = document.score(term);
+            if (score > 0) {
+                scores.put(candidate, score);
+            }
+        }
+        return scores;
+    }
+
+    private Collection<Long> candidates(String term) {
+        if (term.length() < GRAM_SIZE) {
+            return documents.keySet();
+        }
+
+        Set<Long> result = null;
+        for (String gram : grams(term)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            if (result == null) {
+                result = new HashSet<>(posting);
+            } else {
+                result.retainAll(posting);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void addDocument(Product product) {
+        IndexedProduct document = new IndexedProduct(
+                tokenize(product.getProductName()),
+                tokenize(product.getDescription()),
+                product.getCategory() != null ? product.getCategory().getCategoryId() : null,
+                product.getProductName() != null ? product.getProductName().toLowerCase(Locale.ROOT) : "",
+                product.getPrice(),
+                product.getSpecialPrice(),
+                product.getDiscount(),
+                product.getQuantity() != null ? product.getQuantity() : 0);
+        documents.put(product.getProductId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(product.getProductId());
+        }
+    }
+
+    private void removeDocument(Long productId) {
+        IndexedProduct document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replace('ł', 'l');
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    static Set<String> grams(String word) {
+        if (word.length() < GRAM_SIZE) {
+            return Set.of();
+        }
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= word.length(); i++) {
+            result.add(word.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private record CategoryFilter(Long categoryId) {
+    }
+
+    private record FacetKey(Long categoryId, long bucket) {
+    }
+
+    private record IndexedProduct(List<String> nameTokens, List<String> descriptionTokens, Long categoryId,
+                                  String sortName, double price, double specialPrice, double discount, int quantity) {
+
+        Set<String> grams() {
+            Set<String> result = new HashSet<>();
+            nameTokens.forEach(token -> result.addAll(ProductSearchIndex.grams(token)));
+            descriptionTokens.forEach(token -> result.addAll(ProductSearchIndex.grams(token)));
+            return result;
+        }
+
+        int score(String term) {
+            int best = 0;
+            for (String token : nameTokens) {
+                if (token.equals(term)) {
+                    return NAME_WORD_SCORE;
+                } else if (token.startsWith(term)) {
+                    best = Math.max(best, NAME_PREFIX_SCORE);
+                } else if (token.contains(term)) {
+                    best = Math.max(best, NAME_SUBSTRING_SCORE);
+                }
+            }
+            if (best == 0) {
+                for (String token : descriptionTokens) {
+                    if (token.contains(term)) {
+                        return DESCRIPTION_SCORE;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.sklepElektroniczny.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +26,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     private static final Logger logFilter = LoggerFactory.getLogger(JwtAuthFilter.class);
 
     @Override
@@ -42,11 +49,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         try {
             String token = extractJwt(httpRequest);
-            if (token != null && jwtTokenUtil.validateJwtToken(token)) {
-                String extractedUsername = jwtTokenUtil.getUserNameFromJwtToken(token);
-
-                UserDetails loadedUser = customUserDetailsService.loadUserByUsername(extractedUsername);
-
+            UserDetails loadedUser = token != null ? authenticate(token) : null;
+            if (loadedUser != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 loadedUser,
@@ -66,6 +70,20 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         chain.doFilter(httpRequest, httpResponse);
     }
 
+    private UserDetails authenticate(String token) {
+        String username = verifiedTokenCache.getUsername(token);
+        if (username == null) {
+            Claims claims = jwtTokenUtil.parseClaims(token);
+            if (claims == null) {
+                return null;
+            }
+            username = claims.getSubject();
+            verifiedTokenCache.put(token, username, claims.getExpiration());
+        }
+
+        return userPrincipalCache.get(username, customUserDetailsService::loadUserByUsername);
+    }
+
     private String extractJwt(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
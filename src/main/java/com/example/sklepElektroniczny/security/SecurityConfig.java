@@ -5,6 +5,9 @@ import com.example.sklepElektroniczny.entity.Role;
 import com.example.sklepElektroniczny.entity.User;
 import com.example.sklepElektroniczny.repository.RoleRepository;
 import com.example.sklepElektroniczny.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -31,6 +34,8 @@ import java.util.Set;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtAuthEntryPoint jwtAuthEntryPoint;
 
@@ -71,10 +76,15 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthEntryPoint))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // the JWT filter runs once per request and the session is stateless, so an async or
+                        // error re-dispatch has no authentication; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/api/admin/orders/**").hasAnyRole("ADMIN", "WORKER")
                         .requestMatchers("/api/admin/**").hasAnyRole("ADMIN")
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
@@ -114,7 +124,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                      UserPrincipalCache userPrincipalCache) {
         return args -> {
             try {
                 Role userRole = roleRepository.findByRoleName(AppRole.ROLE_USER)
@@ -151,9 +162,10 @@ public class SecurityConfig {
                     userRepository.saveAndFlush(admin);
                 }
 
+                userPrincipalCache.invalidateAll();
+
             } catch (Exception e) {
-                System.err.println("Błąd inicjalizacji danych: " + e.getMessage());
-                e.printStackTrace();
+                logger.error("Błąd inicjalizacji danych: {}", e.getMessage(), e);
             }
         };
     }
@@ -0,0 +1,70 @@
+package com.example.sklepElektroniczny.security;
+
+import com.example.sklepElektroniczny.cache.EvictionGenerations;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated principals keyed by username, used by {@link JwtAuthFilter}
+ * so that requests do not reload the user and its roles from the database every time.
+ * Entries must be evicted whenever a user is created or its roles change.
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private final Cache<String, UserDetails> cache;
+    private final EvictionGenerations generations = new EvictionGenerations();
+    private final AtomicLong evictAllGeneration = new AtomicLong();
+
+    public UserPrincipalCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                              @Value("${app.cache.users.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached principal or loads it. The loader runs outside the cache's internal lock,
+     * so a slow database lookup never blocks readers of other usernames. A principal loaded while
+     * the username was evicted is not cached, so revoked roles cannot come back for another TTL.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generations.current(username);
+        long allGeneration = evictAllGeneration.get();
+        UserDetails loaded = loader.apply(username);
+        cache.asMap().compute(username, (name, present) ->
+                generations.unchanged(name, generation) && evictAllGeneration.get() == allGeneration ? loaded : present);
+        return loaded;
+    }
+
+    public void evict(String username) {
+        generations.bump(username);
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        evictAllGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "user-principals");
+    }
+}
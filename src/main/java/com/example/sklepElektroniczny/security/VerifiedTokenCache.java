@@ -0,0 +1,91 @@
+package com.example.sklepElektroniczny.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * Remembers tokens that already passed signature verification together with their subject,
+ * so repeated requests with the same JWT skip parsing and signature checks.
+ * Entries are keyed by a SHA-256 of the token and never outlive the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final Cache<String, VerifiedToken> cache;
+    private final long maxTtlNanos;
+
+    public VerifiedTokenCache(@Value("${app.cache.jwt.max-size:10000}") long maxSize,
+                              @Value("${app.cache.jwt.ttl-seconds:300}") long ttlSeconds) {
+        this.maxTtlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilTokenExpiry = Duration.ofMillis(value.expiresAt() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(untilTokenExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public String getUsername(String token) {
+        VerifiedToken verified = cache.getIfPresent(hash(token));
+        if (verified == null || verified.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return verified.username();
+    }
+
+    public void put(String token, String username, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        cache.put(hash(token), new VerifiedToken(username, expiration.getTime()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt-tokens");
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record VerifiedToken(String username, long expiresAt) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.entity.Cart;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Maintains {@link Cart#getTotalPrice()} incrementally from line deltas. All arithmetic is done in
+ * {@link BigDecimal} rounded to cents, so repeated updates never accumulate floating-point error;
+ * the stored {@code Double} is only the carrier of an exact two-decimal amount.
+ */
+@Component
+public class CartPricing {
+
+    static final int SCALE = 2;
+
+    public BigDecimal lineTotal(Double unitPrice, int quantity) {
+        return money(unitPrice).multiply(BigDecimal.valueOf(quantity));
+    }
+
+    public void addLine(Cart cart, Double unitPrice, int quantity) {
+        applyDelta(cart, lineTotal(unitPrice, quantity));
+    }
+
+    public void removeLine(Cart cart, Double unitPrice, int quantity) {
+        applyDelta(cart, lineTotal(unitPrice, quantity).negate());
+    }
+
+    /** Replaces one line, e.g. after its quantity or unit price changed. */
+    public void replaceLine(Cart cart, Double oldUnitPrice, int oldQuantity, Double newUnitPrice, int newQuantity) {
+        applyDelta(cart, lineTotal(newUnitPrice, newQuantity).subtract(lineTotal(oldUnitPrice, oldQuantity)));
+    }
+
+    public BigDecimal total(Cart cart) {
+        return money(cart.getTotalPrice());
+    }
+
+    public void setTotal(Cart cart, BigDecimal total) {
+        cart.setTotalPrice(total.setScale(SCALE, RoundingMode.HALF_UP).doubleValue());
+    }
+
+    private void applyDelta(Cart cart, BigDecimal delta) {
+        setTotal(cart, total(cart).add(delta));
+    }
+
+    public static BigDecimal money(Number amount) {
+        if (amount == null) {
+            return BigDecimal.ZERO.setScale(SCALE);
+        }
+        BigDecimal value = amount instanceof BigDecimal decimal ? decimal : BigDecimal.valueOf(amount.doubleValue());
+        return value.setScale(SCALE, RoundingMode.HALF_UP);
+    }
+}
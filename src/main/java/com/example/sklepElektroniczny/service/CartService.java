@@ -5,35 +5,48 @@ import com.example.sklepElektroniczny.dtos.ProductDTO;
 import com.example.sklepElektroniczny.entity.Cart;
 import com.example.sklepElektroniczny.entity.CartElement;
 import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.events.DomainEvent;
 import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.ResourceNotFoundException;
+import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
 import com.example.sklepElektroniczny.repository.CartElementRepository;
 import com.example.sklepElektroniczny.repository.CartRepository;
 import com.example.sklepElektroniczny.repository.ProductRepository;
 import com.example.sklepElektroniczny.util.AuthUtil;
 import jakarta.transaction.Transactional;
 import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class CartService implements CartServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+
     private final CartRepository cartRepo;
     private final AuthUtil authUtil;
     private final ProductRepository productRepo;
     private final CartElementRepository cartElementRepo;
     private final ModelMapper mapper;
+    private final MessageProducer messageProducer;
+    private final CartPricing cartPricing;
 
     public CartService(CartRepository cartRepo, AuthUtil authUtil, ProductRepository productRepo,
-                       CartElementRepository cartElementRepo, ModelMapper mapper) {
+                       CartElementRepository cartElementRepo, ModelMapper mapper, MessageProducer messageProducer,
+                       CartPricing cartPricing) {
         this.cartRepo = cartRepo;
         this.authUtil = authUtil;
         this.productRepo = productRepo;
         this.cartElementRepo = cartElementRepo;
         this.mapper = mapper;
+        this.messageProducer = messageProducer;
+        this.cartPricing = cartPricing;
     }
 
     @Override
@@ -67,9 +80,10 @@ public class CartService implements CartServiceInterface {
 
         cartElementRepo.save(newCartElement);
         product.setQuantity(product.getQuantity());
-        cart.setTotalPrice(cart.getTotalPrice() + (product.getSpecialPrice() * count));
+        cartPricing.addLine(cart, product.getSpecialPrice(), count);
 
         cartRepo.save(cart);
+        messageProducer.publish(DomainEvent.CartChanged.of(cart.getCartId(), elementId, count));
         CartDTO cartResponse = mapper.map(cart, CartDTO.class);
 
         List<CartElement> cartElements = cart.getCartElements();
@@ -163,11 +177,12 @@ public class CartService implements CartServiceInterface {
             deleteProductFromCart(cartId, productId);
         } else {
 
+            cartPricing.replaceLine(cart, cartElement.getPrice(), cartElement.getQuantity(), product.getSpecialPrice(), newQuantity);
             cartElement.setPrice(product.getSpecialPrice());
-            cartElement.setQuantity(cartElement.getQuantity() + quantity);
+            cartElement.setQuantity(newQuantity);
             cartElement.setDiscount(product.getDiscount());
-            cart.setTotalPrice(cart.getTotalPrice() + (cartElement.getPrice() * quantity));
             cartRepo.save(cart);
+            messageProducer.publish(DomainEvent.CartChanged.of(cartId, productId, newQuantity));
         }
         CartElement updatedElement = cartElementRepo.save(cartElement);
         if(updatedElement.getQuantity() == 0){
@@ -203,14 +218,45 @@ public class CartService implements CartServiceInterface {
             throw new ResourceNotFoundException("Product", "productId", productId);
         }
 
-        cart.setTotalPrice(cart.getTotalPrice() -
-                (cartItem.getPrice() * cartItem.getQuantity()));
+        cartPricing.removeLine(cart, cartItem.getPrice(), cartItem.getQuantity());
 
         cartElementRepo.deleteCartItemByProductIdAndCartId(cartId, productId);
+        messageProducer.publish(DomainEvent.CartChanged.of(cartId, productId, 0));
 
         return "Product " + cartItem.getProduct().getProductName() + " removed from the cart !!!";
     }
 
+    /**
+     * Removes every element of the cart with a single bulk DELETE and resets its total.
+     */
+    @Transactional
+    @Override
+    public void clearCart(Long cartId) {
+        Cart cart = cartRepo.findById(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
+
+        cartElementRepo.deleteAllByCartId(cartId);
+        cartPricing.setTotal(cart, BigDecimal.ZERO);
+    }
+
+    /**
+     * Recomputes the cart total from its lines with one aggregate query and corrects the stored
+     * total if the incrementally maintained value has drifted from it.
+     */
+    @Transactional
+    @Override
+    public BigDecimal recalculateTotal(Long cartId) {
+        Cart cart = cartRepo.findById(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
+
+        BigDecimal total = CartPricing.money(cartElementRepo.sumLineTotalsByCartId(cartId));
+        if (total.compareTo(cartPricing.total(cart)) != 0) {
+            logger.warn("Cart {} total {} differs from its lines {}, correcting", cartId, cart.getTotalPrice(), total);
+            cartPricing.setTotal(cart, total);
+        }
+        return total;
+    }
+
     private Cart createCart() {
         Cart userCart = cartRepo.findCartByEmail(authUtil.getCurrentUserEmail());
         if (userCart != null) {
@@ -223,29 +269,18 @@ public class CartService implements CartServiceInterface {
         return cartRepo.save(cart);
     }
 
+    /**
+     * Moves every cart line of the product to its new price with two bulk statements, however many
+     * carts hold it: totals are adjusted by each line's difference first, then the lines are updated.
+     * Returns the number of repriced lines.
+     */
+    @Transactional
     @Override
-    public void updateProductInCarts(Long cartId, Long productId) {
-        Cart cart = cartRepo.findById(cartId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
-
-        Product product = productRepo.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-
-        CartElement cartItem = cartElementRepo.findCartElementByProductIdAndCartId(cartId, productId);
-
-        if (cartItem == null) {
-            throw new APIException("Product " + product.getProductName() + " not available in the cart!!!");
+    public int repriceProductInCarts(Long productId, Double newPrice) {
+        if (newPrice == null) {
+            return 0;
         }
-
-        double cartPrice = cart.getTotalPrice()
-                - (cartItem.getPrice() * cartItem.getQuantity());
-
-        cartItem.setPrice(product.getSpecialPrice());
-
-        cart.setTotalPrice(cartPrice
-                + (cartItem.getPrice() * cartItem.getQuantity()));
-
-        cartItem = cartElementRepo.save(cartItem);
+        cartRepo.repriceTotalsForProduct(productId, newPrice);
+        return cartElementRepo.updatePriceForProduct(productId, newPrice);
     }
 }
-
@@ -3,6 +3,7 @@ package com.example.sklepElektroniczny.service;
 import com.example.sklepElektroniczny.dtos.CartDTO;
 import jakarta.transaction.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface CartServiceInterface {
@@ -18,5 +19,9 @@ public interface CartServiceInterface {
 
     String deleteProductFromCart(Long cartId, Long productId);
 
-    void updateProductInCarts(Long cartId, Long productId);
+    void clearCart(Long cartId);
+
+    BigDecimal recalculateTotal(Long cartId);
+
+    int repriceProductInCarts(Long productId, Double newPrice);
 }
@@ -0,0 +1,54 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.exceptions.APIException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Takes stock for an order with conditional decrements executed as a single JDBC batch.
+ * The {@code quantity >= ?} guard makes every decrement atomic in the database, so concurrent
+ * checkouts of the same product can never oversell it, and bumping {@code version} makes
+ * entity-based writers of the same row fail their optimistic check instead of overwriting it.
+ */
+@Service
+public class InventoryReservationService {
+
+    static final String RESERVE_SQL =
+            "UPDATE products SET quantity = quantity - ?, version = version + 1 WHERE product_id = ? AND quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryReservationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Decrements stock for every product in {@code quantities} (product id to ordered amount).
+     * Must run inside the order's transaction: when any product lacks stock an {@link APIException}
+     * is thrown and the whole order, including decrements already applied, is rolled back.
+     * Rows are updated in product id order so that concurrent orders lock them in the same order.
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        List<Object[]> batchArgs = lines.stream()
+                .map(line -> new Object[]{line.getValue(), line.getKey(), line.getValue()})
+                .toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, batchArgs);
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new APIException("Not enough stock for product " + lines.get(i).getKey());
+            }
+        }
+    }
+}
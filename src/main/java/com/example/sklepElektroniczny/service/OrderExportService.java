@@ -0,0 +1,208 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.dtos.OrderFilter;
+import com.example.sklepElektroniczny.exceptions.APIException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the admin order export straight from a JDBC cursor: rows are fetched {@code fetchSize}
+ * at a time and written out as they arrive, so memory use does not grow with the order history.
+ * CSV has one row per order line; NDJSON has one JSON object per order with its lines nested.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String CSV_HEADER =
+            "order_id,order_date,email,status,total_price,payment_method,product_id,product_name,quantity,price,discount";
+
+    private final JdbcTemplate cursorTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              @Value("${app.orders.export.fetch-size:500}") int fetchSize,
+                              @Value("${app.orders.export.timeout:10m}") Duration timeout) {
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /**
+     * How long one export may stream before the request is timed out; other async requests keep the default.
+     */
+    public long timeoutMillis() {
+        return timeout.toMillis();
+    }
+
+    public static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new APIException("Unsupported export format: " + format);
+        }
+    }
+
+    /**
+     * Writes every order matching the filter. Runs in a read-only transaction because the
+     * PostgreSQL driver only honours the fetch size, instead of buffering the whole result, with auto-commit off.
+     */
+    @Transactional(readOnly = true)
+    public void export(OrderFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            switch (format) {
+                case CSV -> exportCsv(filter, writer);
+                case NDJSON -> exportNdjson(filter, writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void exportCsv(OrderFilter filter, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        query(filter, rs -> {
+            writeCsvRow(writer, List.of(
+                    rs.getLong("order_id"),
+                    nullToEmpty(orderDate(rs)),
+                    nullToEmpty(rs.getString("email")),
+                    nullToEmpty(rs.getString("status")),
+                    nullToEmpty(rs.getBigDecimal("total_price")),
+                    nullToEmpty(rs.getString("payment_method")),
+                    nullToEmpty(rs.getObject("product_id")),
+                    nullToEmpty(rs.getString("product_name")),
+                    nullToEmpty(rs.getObject("quantity")),
+                    nullToEmpty(rs.getObject("ordered_product_price")),
+                    nullToEmpty(rs.getObject("discount"))));
+        });
+    }
+
+    private void exportNdjson(OrderFilter filter, Writer writer) throws IOException {
+        // Rows arrive sorted by order, so only the order currently being assembled is held in memory.
+        ExportedOrder[] current = new ExportedOrder[1];
+        query(filter, rs -> {
+            long orderId = rs.getLong("order_id");
+            if (current[0] == null || current[0].orderId() != orderId) {
+                writeJsonLine(writer, current[0]);
+                current[0] = new ExportedOrder(orderId, orderDate(rs), rs.getString("email"), rs.getString("status"),
+                        rs.getBigDecimal("total_price"), rs.getString("payment_method"), new ArrayList<>());
+            }
+            long productId = rs.getLong("product_id");
+            if (!rs.wasNull()) {
+                current[0].lines().add(new ExportedLine(productId, rs.getString("product_name"), rs.getInt("quantity"),
+                        rs.getDouble("ordered_product_price"), rs.getDouble("discount")));
+            }
+        });
+        writeJsonLine(writer, current[0]);
+    }
+
+    private void query(OrderFilter filter, RowWriter rowWriter) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT o.order_id, o.order_date, o.email, o.status, o.total_price, p.method AS payment_method,
+                       oi.product_id, pr.product_name, oi.quantity, oi.ordered_product_price, oi.discount
+                FROM orders o
+                LEFT JOIN payments p ON p.payment_id = o.payment_id
+                LEFT JOIN order_items oi ON oi.order_id = o.order_id
+                LEFT JOIN products pr ON pr.product_id = oi.product_id
+                WHERE 1 = 1""");
+        List<Object> args = new ArrayList<>();
+        if (filter != null) {
+            if (filter.status() != null && !filter.status().isEmpty()) {
+                sql.append(" AND o.status = ?");
+                args.add(filter.status());
+            }
+            if (filter.email() != null && !filter.email().isEmpty()) {
+                sql.append(" AND o.email = ?");
+                args.add(filter.email());
+            }
+            if (filter.from() != null) {
+                sql.append(" AND o.order_date >= ?");
+                args.add(Date.valueOf(filter.from()));
+            }
+            if (filter.to() != null) {
+                sql.append(" AND o.order_date <= ?");
+                args.add(Date.valueOf(filter.to()));
+            }
+        }
+        sql.append(" ORDER BY o.order_id, oi.order_element_id");
+
+        cursorTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args.toArray());
+    }
+
+    private void writeJsonLine(Writer writer, ExportedOrder order) {
+        if (order == null) {
+            return;
+        }
+        try {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, List<Object> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(String.valueOf(values.get(i))));
+        }
+        writer.write('\n');
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static LocalDate orderDate(ResultSet rs) throws SQLException {
+        Date date = rs.getDate("order_date");
+        return date == null ? null : date.toLocalDate();
+    }
+
+    private static Object nullToEmpty(Object value) {
+        return value == null ? "" : value;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    record ExportedOrder(long orderId, LocalDate orderDate, String email, String status, BigDecimal totalPrice,
+                         String paymentMethod, List<ExportedLine> lines) {
+    }
+
+    record ExportedLine(long productId, String productName, int quantity, double price, double discount) {
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.sklepElektroniczny.service;
 
+import com.example.sklepElektroniczny.cache.ProductCache;
 import com.example.sklepElektroniczny.dtos.OrderDTO;
 import com.example.sklepElektroniczny.dtos.OrderElementDTO;
+import com.example.sklepElektroniczny.dtos.OrderFilter;
+import com.example.sklepElektroniczny.dtos.OrderResponse;
 import com.example.sklepElektroniczny.entity.*;
+import com.example.sklepElektroniczny.events.DomainEvent;
 import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.ResourceNotFoundException;
+import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
 import com.example.sklepElektroniczny.repository.*;
 import jakarta.transaction.Transactional;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +39,9 @@ public class OrderService implements OrderServiceInterface {
     private final CartService cartService;
     private final ModelMapper mapper;
     private final ProductRepository productRepo;
+    private final ProductCache productCache;
+    private final InventoryReservationService inventoryReservation;
+    private final MessageProducer messageProducer;
 
     public OrderService(
             CartRepository cartStorage,
@@ -37,7 +51,10 @@ public class OrderService implements OrderServiceInterface {
             PaymentRepository paymentData,
             CartService cartOps,
             ModelMapper mapper,
-            ProductRepository inventoryRepo
+            ProductRepository inventoryRepo,
+            ProductCache productCache,
+            InventoryReservationService inventoryReservation,
+            MessageProducer messageProducer
     ) {
         this.cartRepo = cartStorage;
         this.addressRepo = locationRepo;
@@ -47,6 +64,9 @@ public class OrderService implements OrderServiceInterface {
         this.cartService = cartOps;
         this.mapper = mapper;
         this.productRepo = inventoryRepo;
+        this.productCache = productCache;
+        this.inventoryReservation = inventoryReservation;
+        this.messageProducer = messageProducer;
     }
 
     @Override
@@ -71,7 +91,8 @@ public class OrderService implements OrderServiceInterface {
         Order newOrder = new Order();
         newOrder.setEmail(emailId);
         newOrder.setOrderDate(LocalDate.now());
-        newOrder.setTotalPrice(BigDecimal.valueOf(userCart.getTotalPrice()).setScale(2, RoundingMode.HALF_UP));
+        // Checked against the cart lines, so the order never inherits a drifted running total.
+        newOrder.setTotalPrice(cartService.recalculateTotal(userCart.getCartId()));
         newOrder.setStatus("Order accepted");
         newOrder.setAddress(address);
 
@@ -100,15 +121,18 @@ public class OrderService implements OrderServiceInterface {
 
         finalOrderElements = elementRepo.saveAll(finalOrderElements);
 
-        elementsInCart.forEach(entry -> {
-            int qty = entry.getQuantity();
-            Product itemProduct = entry.getProduct();
+        Map<Long, Integer> orderedQuantities = new TreeMap<>();
+        elementsInCart.forEach(entry -> orderedQuantities.merge(entry.getProduct().getProductId(), entry.getQuantity(), Integer::sum));
 
-            itemProduct.setQuantity(itemProduct.getQuantity() - qty);
-            productRepo.save(itemProduct);
+        cartService.clearCart(userCart.getCartId());
 
-            cartService.deleteProductFromCart(userCart.getCartId(), itemProduct.getProductId());
-        });
+        // Stock rows stay locked until commit, so they are decremented as late as possible.
+        inventoryReservation.reserve(orderedQuantities);
+        orderedQuantities.keySet().forEach(productCache::evict);
+
+        orderedQuantities.forEach((productId, quantity) ->
+                messageProducer.publish(DomainEvent.StockChanged.of(productId, -quantity)));
+        messageProducer.publish(DomainEvent.OrderPlaced.of(storedOrder, finalOrderElements));
 
         OrderDTO result = mapper.map(storedOrder, OrderDTO.class);
         finalOrderElements.forEach(oi -> result.getOrderElements().add(mapper.map(oi, OrderElementDTO.class)));
@@ -125,15 +149,50 @@ public class OrderService implements OrderServiceInterface {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of orders matching the filter. The elements of the page's orders are loaded in
+     * batches ({@code default_batch_fetch_size}) rather than one query per order.
+     */
     @Override
-    public List<OrderDTO> getAllOrders() {
-        List<Order> orders = orderRepo.findAll();
-        return orders.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    public OrderResponse getAllOrders(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, OrderFilter filter) {
+        Sort sort = sortOrder.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
+
+        Page<Order> page = orderRepo.findAll(specificationFor(filter), pageable);
+
+        OrderResponse orderResponse = new OrderResponse();
+        orderResponse.setContent(page.getContent().stream().map(this::mapToDTO).toList());
+        orderResponse.setPageNumber(page.getNumber());
+        orderResponse.setPageSize(page.getSize());
+        orderResponse.setTotalElements(page.getTotalElements());
+        orderResponse.setTotalPages(page.getTotalPages());
+        orderResponse.setLastPage(page.isLast());
+        return orderResponse;
+    }
+
+    static Specification<Order> specificationFor(OrderFilter filter) {
+        Specification<Order> specification = Specification.where(null);
+        if (filter == null) {
+            return specification;
+        }
+        if (filter.status() != null && !filter.status().isEmpty()) {
+            specification = specification.and((root, query, cb) -> cb.equal(root.get("status"), filter.status()));
+        }
+        if (filter.email() != null && !filter.email().isEmpty()) {
+            specification = specification.and((root, query, cb) -> cb.equal(root.get("email"), filter.email()));
+        }
+        if (filter.from() != null) {
+            specification = specification.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("orderDate"), filter.from()));
+        }
+        if (filter.to() != null) {
+            specification = specification.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("orderDate"), filter.to()));
+        }
+        return specification;
     }
 
-    private OrderDTO mapToDTO(Order order) {
+    OrderDTO mapToDTO(Order order) {
         OrderDTO dto = mapper.map(order, OrderDTO.class);
 
         if (order.getOrderElements() != null) {
@@ -151,6 +210,7 @@ public class OrderService implements OrderServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "orderId", orderId));
         order.setStatus(newStatus);
         orderRepo.save(order);
+        messageProducer.publish(DomainEvent.OrderStatusChanged.of(orderId, newStatus));
     }
 
 }
@@ -1,12 +1,14 @@
 package com.example.sklepElektroniczny.service;
 
 import com.example.sklepElektroniczny.dtos.OrderDTO;
+import com.example.sklepElektroniczny.dtos.OrderFilter;
+import com.example.sklepElektroniczny.dtos.OrderResponse;
 
 import java.util.List;
 
 public interface OrderServiceInterface {
     OrderDTO createOrder(String emailId, Long addressId, String paymentMethod, String paymentGatewayName, String gatewayPaymentId, String gatewayStatus, String gatewayResponseMessage);
     List<OrderDTO> getOrdersByEmail(String email);
-    List<OrderDTO> getAllOrders();
+    OrderResponse getAllOrders(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, OrderFilter filter);
 
 }
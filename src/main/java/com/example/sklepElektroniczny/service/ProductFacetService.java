@@ -0,0 +1,132 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.dtos.CategoryFacetDTO;
+import com.example.sklepElektroniczny.dtos.PriceBucketDTO;
+import com.example.sklepElektroniczny.dtos.ProductFacetsDTO;
+import com.example.sklepElektroniczny.exceptions.APIException;
+import com.example.sklepElektroniczny.search.ProductSearchEngine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Category counts and a price histogram for the product listing sidebar. Both come from one
+ * GROUP BY over (category, price bucket), folded into the two facets, instead of one listing
+ * request per category or price range. A keyword is matched inside that statement when the search
+ * backend supports it, or grouped by an in-process index that holds the prices itself; otherwise its
+ * matching ids are passed in chunks.
+ */
+@Service
+public class ProductFacetService {
+
+    /** Keyword matches from a backend without its own grouping are passed to the query in chunks of this many ids. */
+    static final int IDS_PER_QUERY = 1000;
+
+    /** One grosz; smaller buckets would only split the histogram into single prices. */
+    static final double MIN_BUCKET_SIZE = 0.01;
+
+    private static final String FACET_SQL = """
+            SELECT category_id, category_name, bucket, COUNT(*) AS products
+            FROM (SELECT c.category_id, c.category_name, FLOOR(p.special_price / ?) AS bucket
+                  FROM products p
+                  LEFT JOIN category c ON c.category_id = p.category_id
+                  %s) matching
+            GROUP BY category_id, category_name, bucket""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductSearchEngine productSearchEngine;
+
+    public ProductFacetService(JdbcTemplate jdbcTemplate, ProductSearchEngine productSearchEngine) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productSearchEngine = productSearchEngine;
+    }
+
+    /**
+     * Facets over all products, or over those matching the keyword when one is given.
+     * Prices are bucketed by special price into ranges {@code [n * bucketSize, (n + 1) * bucketSize)}.
+     */
+    public ProductFacetsDTO getFacets(String keyword, double bucketSize) {
+        if (!Double.isFinite(bucketSize) || bucketSize < MIN_BUCKET_SIZE) {
+            throw new APIException("Price bucket size must be a finite number of at least " + MIN_BUCKET_SIZE);
+        }
+
+        Map<Long, CategoryFacetDTO> categories = new HashMap<>();
+        SortedMap<Long, Long> buckets = new TreeMap<>();
+        RowCallbackHandler fold = rs -> add(categories, buckets, rs.getObject("category_id", Long.class),
+                rs.getString("category_name"), rs.getLong("bucket"), rs.getLong("products"));
+
+        if (keyword == null || keyword.isEmpty()) {
+            jdbcTemplate.query(FACET_SQL.formatted(""), fold, bucketSize);
+            return toFacets(categories, buckets, bucketSize);
+        }
+
+        ProductSearchEngine.SqlMatch sqlMatch = productSearchEngine.sqlMatch(keyword);
+        if (sqlMatch != null) {
+            List<Object> args = new ArrayList<>(sqlMatch.args().size() + 1);
+            args.add(bucketSize);
+            args.addAll(sqlMatch.args());
+            jdbcTemplate.query(FACET_SQL.formatted("WHERE " + sqlMatch.predicate()), fold, args.toArray());
+            return toFacets(categories, buckets, bucketSize);
+        }
+
+        List<ProductSearchEngine.FacetCount> facetCounts = productSearchEngine.facetCounts(keyword, bucketSize);
+        if (facetCounts != null) {
+            Map<Long, String> categoryNames = categoryNames(facetCounts);
+            for (ProductSearchEngine.FacetCount facetCount : facetCounts) {
+                add(categories, buckets, facetCount.categoryId(), categoryNames.get(facetCount.categoryId()),
+                        facetCount.bucket(), facetCount.count());
+            }
+            return toFacets(categories, buckets, bucketSize);
+        }
+
+        List<Long> matchingIds = productSearchEngine.search(keyword, null, ProductSearchEngine.RELEVANCE, true);
+        for (int from = 0; from < matchingIds.size(); from += IDS_PER_QUERY) {
+            List<Long> chunk = matchingIds.subList(from, Math.min(from + IDS_PER_QUERY, matchingIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(bucketSize);
+            args.addAll(chunk);
+            jdbcTemplate.query(FACET_SQL.formatted("WHERE p.product_id IN (" + placeholders + ")"), fold, args.toArray());
+        }
+        return toFacets(categories, buckets, bucketSize);
+    }
+
+    private Map<Long, String> categoryNames(List<ProductSearchEngine.FacetCount> facetCounts) {
+        List<Long> categoryIds = facetCounts.stream()
+                .map(ProductSearchEngine.FacetCount::categoryId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, String> names = new HashMap<>();
+        if (!categoryIds.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(categoryIds.size(), "?"));
+            jdbcTemplate.query("SELECT category_id, category_name FROM category WHERE category_id IN (" + placeholders + ")",
+                    (RowCallbackHandler) rs -> names.put(rs.getLong("category_id"), rs.getString("category_name")),
+                    categoryIds.toArray());
+        }
+        return names;
+    }
+
+    private static void add(Map<Long, CategoryFacetDTO> categories, SortedMap<Long, Long> buckets,
+                            Long categoryId, String categoryName, long bucket, long count) {
+        CategoryFacetDTO facet = categories.computeIfAbsent(categoryId, id -> new CategoryFacetDTO(id, categoryName, 0));
+        facet.setCount(facet.getCount() + count);
+        buckets.merge(bucket, count, Long::sum);
+    }
+
+    private static ProductFacetsDTO toFacets(Map<Long, CategoryFacetDTO> categories, SortedMap<Long, Long> buckets,
+                                             double bucketSize) {
+        List<CategoryFacetDTO> categoryFacets = categories.values().stream()
+                .sorted(Comparator.comparingLong(CategoryFacetDTO::getCount).reversed()
+                        .thenComparing(CategoryFacetDTO::getCategoryName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        List<PriceBucketDTO> priceBuckets = buckets.entrySet().stream()
+                .map(entry -> new PriceBucketDTO(entry.getKey() * bucketSize, (entry.getKey() + 1) * bucketSize, entry.getValue()))
+                .toList();
+        long total = buckets.values().stream().mapToLong(Long::longValue).sum();
+
+        return new ProductFacetsDTO(total, categoryFacets, priceBuckets);
+    }
+}
@@ -1,20 +1,27 @@
 package com.example.sklepElektroniczny.service;
 
-import com.example.sklepElektroniczny.dtos.CartDTO;
+import com.example.sklepElektroniczny.cache.ProductCache;
+import com.example.sklepElektroniczny.dtos.CacheStatsDTO;
+import com.example.sklepElektroniczny.dtos.ProductCursorResponse;
 import com.example.sklepElektroniczny.dtos.ProductDTO;
 import com.example.sklepElektroniczny.dtos.ProductResponse;
 import com.example.sklepElektroniczny.entity.Category;
 import com.example.sklepElektroniczny.entity.Product;
-import com.example.sklepElektroniczny.entity.Cart;
+import com.example.sklepElektroniczny.events.DomainEvent;
 import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.ResourceNotFoundException;
 import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
 import com.example.sklepElektroniczny.repository.CartRepository;
 import com.example.sklepElektroniczny.repository.CategoryRepository;
 import com.example.sklepElektroniczny.repository.ProductRepository;
+import com.example.sklepElektroniczny.search.ProductSearchEngine;
+import com.example.sklepElektroniczny.util.ProductCursor;
+import jakarta.persistence.criteria.Path;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,18 +34,25 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService implements ProductServiceInterface{
 
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final CartRepository cartRepository;
     private final CartService cartService;
     private final ModelMapper modelMapper;
     private final MessageProducer messageProducer;
+    private final ProductSearchEngine productSearchEngine;
+    private final ProductCache productCache;
 
     @Value("${image.base.url}")
     private String imageBaseUrl;
@@ -48,13 +62,17 @@ public class ProductService implements ProductServiceInterface{
                           CartRepository cartRepository,
                           CartService cartService,
                           ModelMapper modelMapper,
-                          MessageProducer messageProducer) {
+                          MessageProducer messageProducer,
+                          ProductSearchEngine productSearchEngine,
+                          ProductCache productCache) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.cartRepository = cartRepository;
         this.cartService = cartService;
         this.modelMapper = modelMapper;
         this.messageProducer = messageProducer;
+        this.productSearchEngine = productSearchEngine;
+        this.productCache = productCache;
     }
 
     public void setImageBaseUrl(String imageBaseUrl) {
@@ -84,9 +102,8 @@ public class ProductService implements ProductServiceInterface{
             double specialPrice = product.getPrice() - ((product.getDiscount() * 0.01) * product.getPrice());
             product.setSpecialPrice(specialPrice);
             Product savedProduct = productRepository.save(product);
-
-            String message = "Dodano produkt: " + savedProduct.getProductName();
-            messageProducer.sendProductCreatedMessage(message);
+            productSearchEngine.index(savedProduct);
+            messageProducer.publish(DomainEvent.ProductCreated.of(savedProduct));
 
             return modelMapper.map(savedProduct, ProductDTO.class);
         } else {
@@ -96,24 +113,25 @@ public class ProductService implements ProductServiceInterface{
 
     @Override
     public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, String keyword, String category) {
-        Sort sort = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
-        Specification<Product> specification = Specification.where(null);
+        Page<Product> page;
 
         if(keyword != null && !keyword.isEmpty()){
-            specification = specification.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("productName")), "%" + keyword.toLowerCase() + "%"));
-        }
+            page = searchIndexedPage(keyword, category, pageNumber, pageSize, sortBy, sortOrder);
+        } else {
+            Sort sort = sortOrder.equalsIgnoreCase("asc")
+                    ? Sort.by(sortBy).ascending()
+                    : Sort.by(sortBy).descending();
 
-        if(category != null && !category.isEmpty()){
-            specification = specification.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.like(root.get("category").get("categoryName"), category));
-        }
+            Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
+            Specification<Product> specification = Specification.where(null);
 
-        Page<Product> page = productRepository.findAll(specification, pageable);
+            if(category != null && !category.isEmpty()){
+                specification = specification.and((root, query, criteriaBuilder) ->
+                        criteriaBuilder.like(root.get("category").get("categoryName"), category));
+            }
+
+            page = productRepository.findAll(specification, pageable);
+        }
 
         List<Product> products = page.getContent();
 
@@ -136,17 +154,127 @@ public class ProductService implements ProductServiceInterface{
         return productResponse;
     }
 
+    @Override
+    public ProductCursorResponse getProductsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder,
+                                                     String keyword, String category, boolean includeTotal) {
+        ProductCursor position = (cursor != null && !cursor.isEmpty()) ? ProductCursor.decode(cursor) : null;
+        String sortField = position != null ? position.getSortBy() : sortBy;
+        boolean ascending = position != null ? position.isAscending() : sortOrder.equalsIgnoreCase("asc");
+        ProductCursor.requireSortable(sortField);
+
+        List<Product> products;
+        boolean hasMore;
+        Long totalElements = null;
+
+        if (keyword != null && !keyword.isEmpty()) {
+            List<Long> rowIds = productSearchEngine.seek(keyword, category, sortField, ascending,
+                    position != null ? position.getSortValue() : null,
+                    position != null ? position.getProductId() : null,
+                    pageSize + 1);
+            hasMore = rowIds.size() > pageSize;
+            List<Long> pageIds = hasMore ? rowIds.subList(0, pageSize) : rowIds;
+
+            Map<Long, Product> loaded = productRepository.findAllById(pageIds).stream()
+                    .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+            products = pageIds.stream().map(loaded::get).filter(Objects::nonNull).toList();
+            if (includeTotal) {
+                totalElements = productSearchEngine.count(keyword, category);
+            }
+        } else {
+            Specification<Product> filter = Specification.where(null);
+            if (category != null && !category.isEmpty()) {
+                filter = filter.and((root, query, criteriaBuilder) ->
+                        criteriaBuilder.like(root.get("category").get("categoryName"), category));
+            }
+
+            Specification<Product> page = position != null ? filter.and(after(position)) : filter;
+            Sort sort = ascending
+                    ? Sort.by(sortField).ascending().and(Sort.by("productId").ascending())
+                    : Sort.by(sortField).descending().and(Sort.by("productId").descending());
+
+            List<Product> rows = productRepository.findBy(page, query -> query.sortBy(sort).limit(pageSize + 1).all());
+            hasMore = rows.size() > pageSize;
+            products = hasMore ? rows.subList(0, pageSize) : rows;
+            if (includeTotal) {
+                totalElements = productRepository.count(filter);
+            }
+        }
+
+        List<ProductDTO> productDTOS = products.stream()
+                .map(product -> {
+                    ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
+                    productDTO.setImage(createUrlForImage(product.getImage()));
+                    return productDTO;
+                })
+                .toList();
+
+        String nextCursor = hasMore && !products.isEmpty()
+                ? ProductCursor.after(products.get(products.size() - 1), sortField, ascending).encode()
+                : null;
+
+        return new ProductCursorResponse(productDTOS, pageSize, nextCursor, totalElements, nextCursor == null);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<Product> after(ProductCursor position) {
+        return (root, query, criteriaBuilder) -> {
+            Path<Comparable> sortPath = root.get(position.getSortBy());
+            Path<Long> idPath = root.get("productId");
+            Comparable value = position.getSortValue();
+
+            if (position.isAscending()) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(sortPath, value),
+                        criteriaBuilder.and(criteriaBuilder.equal(sortPath, value),
+                                criteriaBuilder.greaterThan(idPath, position.getProductId())));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(sortPath, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(sortPath, value),
+                            criteriaBuilder.lessThan(idPath, position.getProductId())));
+        };
+    }
+
     @Override
     public ProductDTO getProductById(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-        return modelMapper.map(product, ProductDTO.class);
+        return productCache.get(productId, id -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+            return modelMapper.map(product, ProductDTO.class);
+        });
+    }
+
+    @Override
+    public CacheStatsDTO getProductCacheStats() {
+        return productCache.stats();
     }
 
     private String createUrlForImage(String name){
         return imageBaseUrl.endsWith("/") ? imageBaseUrl + name : imageBaseUrl + "/" + name;
     }
 
+    private Page<Product> searchIndexedPage(String keyword, String category, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        ProductSearchEngine.SearchPage matches = productSearchEngine.page(keyword, category, sortBy,
+                sortOrder.equalsIgnoreCase("asc"), pageNumber * pageSize, pageSize);
+        List<Long> pageIds = matches.productIds();
+
+        Map<Long, Product> loaded = productRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        List<Product> products = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (products.size() < pageIds.size()) {
+            pageIds.stream()
+                    .filter(id -> !loaded.containsKey(id))
+                    .forEach(productSearchEngine::remove);
+        }
+
+        return new PageImpl<>(products, PageRequest.of(pageNumber, pageSize), matches.totalElements());
+    }
+
     @Override
     public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
@@ -183,12 +311,7 @@ public class ProductService implements ProductServiceInterface{
     @Override
     public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
-        Sort sort = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
-        Page<Product> page = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageable);
+        Page<Product> page = searchIndexedPage(keyword, null, pageNumber, pageSize, sortBy, sortOrder);
 
         List<Product> products = page.getContent();
 
@@ -212,35 +335,51 @@ public class ProductService implements ProductServiceInterface{
 
     @Override
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
-        Product product1 = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-
         Product product = modelMapper.map(productDTO, Product.class);
 
-        product1.setProductName(product.getProductName());
-        product1.setDescription(product.getDescription());
-        product1.setQuantity(product.getQuantity());
-        product1.setDiscount(product.getDiscount());
-        product1.setPrice(product.getPrice());
-        product1.setSpecialPrice(product.getSpecialPrice());
-
-        Product savedProduct = productRepository.save(product1);
-
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-
-        List<CartDTO> cartDTOs = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-            List<ProductDTO> products = cart.getCartElements().stream()
-                    .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class)).collect(Collectors.toList());
-
-            cartDTO.setProducts(products);
-
-            return cartDTO;
+        Product savedProduct = null;
+        Double previousPrice = null;
+        Integer quantityChange = null;
+        for (int attempt = 1; savedProduct == null; attempt++) {
+            Product product1 = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+
+            // the new quantity is applied as a change against the first read, so a retry keeps
+            // the stock that orders reserved in between instead of overwriting it
+            int currentQuantity = product1.getQuantity() != null ? product1.getQuantity() : 0;
+            if (attempt == 1 && product.getQuantity() != null) {
+                quantityChange = product.getQuantity() - currentQuantity;
+            }
+            if (quantityChange != null) {
+                if (currentQuantity + quantityChange < 0) {
+                    throw new APIException("Stock of product " + productId + " changed concurrently, please try again");
+                }
+                product1.setQuantity(currentQuantity + quantityChange);
+            }
 
-        }).collect(Collectors.toList());
+            previousPrice = product1.getSpecialPrice();
+            product1.setProductName(product.getProductName());
+            product1.setDescription(product.getDescription());
+            product1.setDiscount(product.getDiscount());
+            product1.setPrice(product.getPrice());
+            product1.setSpecialPrice(product.getSpecialPrice());
+
+            try {
+                savedProduct = productRepository.save(product1);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // an order changed the stock after the product was read; re-read and apply again
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw new APIException("Product " + productId + " is being modified concurrently, please try again");
+                }
+            }
+        }
+        productCache.evict(productId);
+        productSearchEngine.index(savedProduct);
+        messageProducer.publish(DomainEvent.ProductUpdated.of(savedProduct));
 
-        cartDTOs.forEach(cart -> cartService.updateProductInCarts(cart.getCartId(), productId));
+        if (!Objects.equals(previousPrice, savedProduct.getSpecialPrice())) {
+            cartService.repriceProductInCarts(productId, savedProduct.getSpecialPrice());
+        }
 
         return modelMapper.map(savedProduct, ProductDTO.class);
     }
@@ -250,14 +389,15 @@ public class ProductService implements ProductServiceInterface{
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-
-        if (!carts.isEmpty()) {
+        if (cartRepository.existsCartWithProduct(productId)) {
 
             throw new APIException("Nie można usunąć produktu, ponieważ jest on obecny w jednym lub więcej koszykach.");
         }
 
         productRepository.delete(product);
+        productCache.evict(productId);
+        productSearchEngine.remove(productId);
+        messageProducer.publish(DomainEvent.ProductDeleted.of(productId));
         return modelMapper.map(product, ProductDTO.class);
     }
 
@@ -273,6 +413,8 @@ public class ProductService implements ProductServiceInterface{
         existingProduct.setImage(savedFileName);
 
         Product updatedProduct = productRepository.save(existingProduct);
+        productCache.evict(productId);
+        messageProducer.publish(DomainEvent.ProductUpdated.of(updatedProduct));
 
         return modelMapper.map(updatedProduct, ProductDTO.class);
     }
@@ -1,5 +1,7 @@
 package com.example.sklepElektroniczny.service;
 
+import com.example.sklepElektroniczny.dtos.CacheStatsDTO;
+import com.example.sklepElektroniczny.dtos.ProductCursorResponse;
 import com.example.sklepElektroniczny.dtos.ProductDTO;
 import com.example.sklepElektroniczny.dtos.ProductResponse;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,6 +13,9 @@ public interface ProductServiceInterface {
 
     ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, String keyword, String category);
 
+    ProductCursorResponse getProductsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder,
+                                              String keyword, String category, boolean includeTotal);
+
     ProductDTO getProductById(Long productId);
 
     ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
@@ -22,4 +27,6 @@ public interface ProductServiceInterface {
     ProductDTO deleteProduct(Long productId);
 
     ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException;
+
+    CacheStatsDTO getProductCacheStats();
 }
@@ -3,38 +3,55 @@ package com.example.sklepElektroniczny.util;
 
 import com.example.sklepElektroniczny.entity.User;
 import com.example.sklepElektroniczny.repository.UserRepository;
+import com.example.sklepElektroniczny.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+/**
+ * Answers questions about the authenticated user. Id and email come straight from the
+ * {@link CustomUserDetails} principal; the {@link User} entity is loaded at most once per request.
+ */
 @Component
 public class AuthUtil {
 
+    private static final String CURRENT_USER_ATTRIBUTE = AuthUtil.class.getName() + ".currentUser";
+
     @Autowired
     private UserRepository userRepo;
 
     public String getCurrentUserEmail() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = userRepo.findByUserName(auth.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + auth.getName()));
-
-        return currentUser.getEmail();
+        if (currentPrincipal() instanceof CustomUserDetails userDetails && userDetails.getEmail() != null) {
+            return userDetails.getEmail();
+        }
+        return getCurrentUser().getEmail();
     }
 
     public Long getCurrentUserId() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = userRepo.findByUserName(auth.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + auth.getName()));
-
-        return currentUser.getUserId();
+        if (currentPrincipal() instanceof CustomUserDetails userDetails && userDetails.getId() != null) {
+            return userDetails.getId();
+        }
+        return getCurrentUser().getUserId();
     }
 
     public User getCurrentUser() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User cached) {
+            return cached;
+        }
+
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepo.findByUserName(auth.getName())
+        User currentUser = userRepo.findByUserName(auth.getName())
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + auth.getName()));
+
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return currentUser;
     }
 
     public boolean isCurrentUserAdmin() {
@@ -49,6 +66,8 @@ public class AuthUtil {
                 .anyMatch(role -> role.getAuthority().equals("ROLE_WORKER"));
     }
 
-
+    private Object currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getPrincipal() : null;
+    }
 }
-
@@ -0,0 +1,101 @@
+package com.example.sklepElektroniczny.util;
+
+import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.exceptions.APIException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset pagination of products.
+ * It remembers the sort field, direction, and the sort value and id of the last product returned,
+ * so the next page starts right after that row instead of skipping rows with OFFSET.
+ */
+public final class ProductCursor {
+
+    public static final Set<String> SORTABLE_FIELDS = Set.of("productId", "productName", "price", "specialPrice", "discount");
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+    private final boolean ascending;
+    private final Long productId;
+    private final Comparable<?> sortValue;
+
+    private ProductCursor(String sortBy, boolean ascending, Long productId, Comparable<?> sortValue) {
+        this.sortBy = sortBy;
+        this.ascending = ascending;
+        this.productId = productId;
+        this.sortValue = sortValue;
+    }
+
+    public static ProductCursor after(Product product, String sortBy, boolean ascending) {
+        requireSortable(sortBy);
+        return new ProductCursor(sortBy, ascending, product.getProductId(), sortValueOf(product, sortBy));
+    }
+
+    public static void requireSortable(String sortBy) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new APIException("Cursor pagination supports sorting only by " + SORTABLE_FIELDS);
+        }
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !SORTABLE_FIELDS.contains(parts[1])) {
+                throw new APIException("Invalid cursor");
+            }
+            String sortBy = parts[1];
+            boolean ascending = "asc".equals(parts[2]);
+            Long productId = Long.valueOf(parts[3]);
+            return new ProductCursor(sortBy, ascending, productId, parseSortValue(sortBy, parts[4]));
+        } catch (IllegalArgumentException e) {
+            throw new APIException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortBy, ascending ? "asc" : "desc",
+                String.valueOf(productId), String.valueOf(sortValue));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Comparable<?> getSortValue() {
+        return sortValue;
+    }
+
+    private static Comparable<?> sortValueOf(Product product, String sortBy) {
+        return switch (sortBy) {
+            case "productId" -> product.getProductId();
+            case "productName" -> product.getProductName();
+            case "price" -> product.getPrice();
+            case "specialPrice" -> product.getSpecialPrice();
+            case "discount" -> product.getDiscount();
+            default -> throw new APIException("Unsupported cursor sort field: " + sortBy);
+        };
+    }
+
+    private static Comparable<?> parseSortValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "productId" -> Long.valueOf(value);
+            case "productName" -> value;
+            default -> Double.valueOf(value);
+        };
+    }
+}
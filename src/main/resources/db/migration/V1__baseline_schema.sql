@@ -0,0 +1,95 @@
+-- Baseline: the schema Hibernate created with ddl-auto=update. Existing databases are baselined
+-- at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE category (
+    category_id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category_name varchar(255)
+);
+
+CREATE TABLE role (
+    role_id   integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    role_name varchar(255) CHECK (role_name IN ('ROLE_USER', 'ROLE_WORKER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE users (
+    user_id  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username varchar(20),
+    email    varchar(30),
+    password varchar(100),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_role (
+    user_id bigint  NOT NULL REFERENCES users (user_id),
+    role_id integer NOT NULL REFERENCES role (role_id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE addresses (
+    address_id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    city       varchar(255),
+    street     varchar(255),
+    number     integer,
+    pincode    varchar(255),
+    user_id    bigint REFERENCES users (user_id)
+);
+
+CREATE TABLE products (
+    product_id    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_name  varchar(255),
+    image         varchar(255),
+    description   varchar(255),
+    quantity      integer,
+    price         double precision NOT NULL,
+    discount      double precision NOT NULL,
+    special_price double precision NOT NULL,
+    version       bigint DEFAULT 0,
+    category_id   bigint REFERENCES category (category_id)
+);
+
+CREATE TABLE carts (
+    cart_id     bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     bigint UNIQUE REFERENCES users (user_id),
+    total_price double precision
+);
+
+CREATE TABLE cart_element (
+    cart_element_id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cart_id         bigint REFERENCES carts (cart_id),
+    product_id      bigint REFERENCES products (product_id),
+    quantity        integer,
+    discount        double precision,
+    price           double precision
+);
+
+CREATE TABLE payments (
+    payment_id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    method                   varchar(255),
+    gateway_payment_id       varchar(255),
+    gateway_status           varchar(255),
+    gateway_response_message varchar(255),
+    payment_gateway_name     varchar(255)
+);
+
+CREATE TABLE orders (
+    order_id    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       varchar(255) NOT NULL,
+    order_date  date,
+    payment_id  bigint UNIQUE REFERENCES payments (payment_id),
+    total_price numeric(38, 2),
+    status      varchar(255),
+    address_id  bigint REFERENCES addresses (address_id)
+);
+
+-- Pooled ids for batched order element inserts; the increment matches allocationSize on OrderElement.
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE order_items (
+    order_element_id      bigint PRIMARY KEY,
+    product_id            bigint REFERENCES products (product_id),
+    order_id              bigint REFERENCES orders (order_id),
+    quantity              integer,
+    discount              double precision NOT NULL,
+    ordered_product_price double precision NOT NULL
+);
@@ -0,0 +1,56 @@
+-- Indexes for the predicates the repositories filter and join on.
+
+-- OrderRepository.findByEmail, admin order filter
+CREATE INDEX idx_orders_email ON orders (email);
+
+-- Elements of a page of orders (batch fetch) and the order export join
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+
+-- Concurrent adds could leave the same product twice in a cart: fold the duplicates into the
+-- oldest line, drop the rest and recompute the affected cart totals before adding the constraint.
+CREATE TEMPORARY TABLE duplicate_cart_lines ON COMMIT DROP AS
+SELECT cart_id, product_id, MIN(cart_element_id) AS keep_id, SUM(quantity) AS quantity
+FROM cart_element
+GROUP BY cart_id, product_id
+HAVING COUNT(*) > 1;
+
+UPDATE cart_element ce
+SET quantity = d.quantity
+FROM duplicate_cart_lines d
+WHERE ce.cart_element_id = d.keep_id;
+
+DELETE FROM cart_element ce
+USING duplicate_cart_lines d
+WHERE ce.cart_id = d.cart_id
+  AND ce.product_id = d.product_id
+  AND ce.cart_element_id <> d.keep_id;
+
+UPDATE carts c
+SET total_price = (SELECT COALESCE(SUM(ce.price * ce.quantity), 0)
+                   FROM cart_element ce
+                   WHERE ce.cart_id = c.cart_id)
+WHERE c.cart_id IN (SELECT cart_id FROM duplicate_cart_lines);
+
+-- A product appears at most once per cart; the constraint's index also serves
+-- CartElementRepository.findCartElementByProductIdAndCartId and lookups by cart
+ALTER TABLE cart_element ADD CONSTRAINT uk_cart_element_cart_product UNIQUE (cart_id, product_id);
+
+-- Carts containing a product (repricing, existsCartWithProduct)
+CREATE INDEX idx_cart_element_product ON cart_element (product_id);
+
+-- ProductRepository.findByCategoryOrderByPriceAsc
+CREATE INDEX idx_products_category_price ON products (category_id, price);
+
+-- Category lookup by name
+CREATE INDEX idx_category_name ON category (category_name);
+
+-- Substring search on product names (ILIKE '%...%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_products_name_trgm ON products USING gin (lower(product_name) gin_trgm_ops);
+
+-- Order elements used IDENTITY ids before the pooled sequence: move the sequence past the stored ids.
+-- A database baselined at V1 (baseline-on-migrate) never ran V1, so the sequence may not exist yet.
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('order_items_seq', GREATEST(
+        (SELECT COALESCE(MAX(order_element_id), 0) FROM order_items) + 50,
+        (SELECT last_value FROM order_items_seq)));
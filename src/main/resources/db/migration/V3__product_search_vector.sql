@@ -0,0 +1,9 @@
+-- Full-text search for app.search.backend=postgres. The column is generated, so every insert and
+-- update of a product keeps it current without application code or triggers.
+-- The 'simple' configuration only lower-cases: no stemming or stop words, which suits product names.
+
+ALTER TABLE products ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(product_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX idx_products_search_vector ON products USING gin (search_vector);
@@ -0,0 +1,41 @@
+package com.example.sklepElektroniczny.cache;
+
+import com.example.sklepElektroniczny.dtos.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private final ProductCache cache = new ProductCache(100, 60);
+
+    @Test
+    void get_cachesLoadedProduct() {
+        cache.get(1L, id -> product(id, 100.0));
+
+        ProductDTO cached = cache.get(1L, id -> product(id, 999.0));
+
+        assertThat(cached.getPrice()).isEqualTo(100.0);
+    }
+
+    @Test
+    void get_doesNotStoreValueLoadedBeforeAnEviction() {
+        ProductDTO stale = cache.get(1L, id -> {
+            // an update evicts the product while this reader still holds the old row
+            cache.evict(id);
+            return product(id, 100.0);
+        });
+
+        ProductDTO fresh = cache.get(1L, id -> product(id, 80.0));
+
+        assertThat(stale.getPrice()).isEqualTo(100.0);
+        assertThat(fresh.getPrice()).isEqualTo(80.0);
+    }
+
+    private static ProductDTO product(Long id, double price) {
+        ProductDTO dto = new ProductDTO();
+        dto.setProductId(id);
+        dto.setPrice(price);
+        return dto;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.sklepElektroniczny.controller;
 
 import com.example.sklepElektroniczny.security.*;
+import com.example.sklepElektroniczny.entity.AppRole;
+import com.example.sklepElektroniczny.entity.Role;
 import com.example.sklepElektroniczny.entity.User;
 import com.example.sklepElektroniczny.repository.RoleRepository;
 import com.example.sklepElektroniczny.repository.UserRepository;
@@ -35,6 +37,9 @@ public class AuthControllerTest {
     @Mock
     private PasswordEncoder encoder;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
     @InjectMocks
     private AuthController authController;
 
@@ -125,6 +130,22 @@ public class AuthControllerTest {
         assertThat(messageResponse.getMessage()).contains("Email is already in use");
     }
 
-}
+    @Test
+    void testRegisterUser_Success_EvictsCachedPrincipal() {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setUsername("newuser");
+        signupRequest.setEmail("newuser@example.com");
+        signupRequest.setPassword("pass123");
 
+        when(userRepository.existsByUserName("newuser")).thenReturn(false);
+        when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
+        when(encoder.encode("pass123")).thenReturn("encoded");
+        when(roleRepository.findByRoleName(AppRole.ROLE_USER)).thenReturn(Optional.of(new Role(AppRole.ROLE_USER)));
+
+        ResponseEntity<?> response = authController.registerUser(signupRequest);
 
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        verify(userRepository).save(any(User.class));
+        verify(userPrincipalCache).evict("newuser");
+    }
+}
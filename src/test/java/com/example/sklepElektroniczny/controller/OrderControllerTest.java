@@ -1,8 +1,11 @@
 package com.example.sklepElektroniczny.controller;
 
 import com.example.sklepElektroniczny.dtos.OrderDTO;
+import com.example.sklepElektroniczny.dtos.OrderFilter;
 import com.example.sklepElektroniczny.dtos.OrderRequestDTO;
+import com.example.sklepElektroniczny.dtos.OrderResponse;
 import com.example.sklepElektroniczny.dtos.StatusUpdateRequest;
+import com.example.sklepElektroniczny.service.OrderExportService;
 import com.example.sklepElektroniczny.service.OrderService;
 import com.example.sklepElektroniczny.util.AuthUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,15 +17,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.filter.CharacterEncodingFilter;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +47,9 @@ public class OrderControllerTest {
     @Mock
     private AuthUtil authUtil;
 
+    @Mock
+    private OrderExportService orderExportService;
+
     @InjectMocks
     private OrderController orderController;
 
@@ -114,14 +126,64 @@ public class OrderControllerTest {
         orderDTO.setOrderId(1L);
         orderDTO.setStatus("CREATED");
 
-        List<OrderDTO> orders = Collections.singletonList(orderDTO);
+        OrderResponse orderResponse = new OrderResponse();
+        orderResponse.setContent(Collections.singletonList(orderDTO));
+        orderResponse.setPageNumber(0);
+        orderResponse.setPageSize(10);
+        orderResponse.setTotalElements(1L);
+        orderResponse.setTotalPages(1);
+        orderResponse.setLastPage(true);
 
         when(authUtil.isCurrentUserAdmin()).thenReturn(true);
-        when(orderService.getAllOrders()).thenReturn(orders);
+        when(orderService.getAllOrders(eq(0), eq(10), eq("orderId"), eq("desc"),
+                eq(new OrderFilter("CREATED", null, LocalDate.of(2025, 1, 1), null)))).thenReturn(orderResponse);
 
-        mockMvc.perform(get("/api/admin/orders"))
+        mockMvc.perform(get("/api/admin/orders")
+                        .param("status", "CREATED")
+                        .param("from", "2025-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].orderId").value(1))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.lastPage").value(true));
+    }
+
+    @Test
+    public void testExportOrders_StreamsCsv() throws Exception {
+        when(authUtil.isCurrentUserAdmin()).thenReturn(true);
+        when(orderExportService.timeoutMillis()).thenReturn(600_000L);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("order_id,email\n1,test@example.com\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderExportService).export(eq(new OrderFilter(null, "test@example.com", null, null)),
+                eq(OrderExportService.Format.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/admin/orders/export")
+                        .param("format", "csv")
+                        .param("email", "test@example.com"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(600_000L);
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].orderId").value(1));
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("order_id,email\n1,test@example.com\n"));
+    }
+
+    @Test
+    public void testExportOrders_NoPermission_Forbidden() throws Exception {
+        when(authUtil.isCurrentUserAdmin()).thenReturn(false);
+
+        MvcResult result = mockMvc.perform(get("/api/admin/orders/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string("Brak uprawnien"));
+        verifyNoInteractions(orderExportService);
     }
 
     @Test
@@ -0,0 +1,116 @@
+package com.example.sklepElektroniczny.controller;
+
+import com.example.sklepElektroniczny.dtos.OrderFilter;
+import com.example.sklepElektroniczny.metrics.SqlStatementMetricsFilter;
+import com.example.sklepElektroniczny.repository.RoleRepository;
+import com.example.sklepElektroniczny.repository.UserRepository;
+import com.example.sklepElektroniczny.security.CustomUserDetailsService;
+import com.example.sklepElektroniczny.security.JwtTokenUtil;
+import com.example.sklepElektroniczny.security.SecurityConfig;
+import com.example.sklepElektroniczny.security.UserPrincipalCache;
+import com.example.sklepElektroniczny.security.VerifiedTokenCache;
+import com.example.sklepElektroniczny.service.OrderExportService;
+import com.example.sklepElektroniczny.service.OrderService;
+import com.example.sklepElektroniczny.util.AuthUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the export through the real security filter chain, including the async re-dispatch that
+ * delivers the streamed body; {@link OrderControllerTest} uses a standalone setup without filters.
+ */
+@WebMvcTest(controllers = OrderController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SqlStatementMetricsFilter.class))
+@Import(SecurityConfig.class)
+class OrderExportSecurityTest {
+
+    private static final String ADMIN_TOKEN = "admin-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private OrderExportService orderExportService;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private JwtTokenUtil jwtTokenUtil;
+
+    @MockitoBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockitoBean
+    private UserPrincipalCache userPrincipalCache;
+
+    @MockitoBean
+    private RoleRepository roleRepository;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(verifiedTokenCache.getUsername(ADMIN_TOKEN)).thenReturn("admin");
+        when(userPrincipalCache.get(eq("admin"), any()))
+                .thenReturn(User.withUsername("admin").password("secret").roles("ADMIN").build());
+        when(authUtil.isCurrentUserAdmin()).thenReturn(true);
+        when(orderExportService.timeoutMillis()).thenReturn(60_000L);
+    }
+
+    @Test
+    void export_StreamsBodyThroughAsyncDispatch() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("order_id,email\n1,test@example.com\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderExportService).export(eq(new OrderFilter(null, null, null, null)),
+                eq(OrderExportService.Format.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/admin/orders/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + ADMIN_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("order_id,email\n1,test@example.com\n"));
+    }
+
+    @Test
+    void export_WithoutToken_IsRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/admin/orders/export").param("format", "csv"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(orderExportService);
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.sklepElektroniczny.controller;
 
+import com.example.sklepElektroniczny.dtos.CategoryFacetDTO;
+import com.example.sklepElektroniczny.dtos.PriceBucketDTO;
+import com.example.sklepElektroniczny.dtos.ProductCursorResponse;
 import com.example.sklepElektroniczny.dtos.ProductDTO;
+import com.example.sklepElektroniczny.dtos.ProductFacetsDTO;
 import com.example.sklepElektroniczny.dtos.ProductResponse;
+import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.MyGlobalExceptionHandler;
+import com.example.sklepElektroniczny.service.ProductFacetService;
 import com.example.sklepElektroniczny.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,8 +21,12 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +39,9 @@ public class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductFacetService productFacetService;
+
     @InjectMocks
     private ProductController productController;
 
@@ -59,6 +72,50 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.productName").value("Laptop"));
     }
 
+    @Test
+    public void testGetProductsByCursor_Success() throws Exception {
+        ProductCursorResponse response = new ProductCursorResponse();
+        response.setPageSize(10);
+        response.setNextCursor("abc");
+
+        when(productService.getProductsByCursor("xyz", 10, "price", "asc", null, null, false)).thenReturn(response);
+
+        mockMvc.perform(get("/api/public/products/cursor")
+                        .param("cursor", "xyz")
+                        .param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageSize").value(10))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+    }
+
+    @Test
+    public void testGetProductFacets_Success() throws Exception {
+        ProductFacetsDTO facets = new ProductFacetsDTO(3L,
+                List.of(new CategoryFacetDTO(1L, "Laptopy", 3L)),
+                List.of(new PriceBucketDTO(2000.0, 2500.0, 2L), new PriceBucketDTO(3500.0, 4000.0, 1L)));
+
+        when(productFacetService.getFacets("laptop", 500.0)).thenReturn(facets);
+
+        mockMvc.perform(get("/api/public/products/facets")
+                        .param("keyword", "laptop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Laptopy"))
+                .andExpect(jsonPath("$.priceBuckets[1].from").value(3500.0))
+                .andExpect(jsonPath("$.priceBuckets[1].count").value(1));
+    }
+
+    @Test
+    public void testGetProductFacets_InvalidBucketSize() throws Exception {
+        when(productFacetService.getFacets(isNull(), eq(0.0)))
+                .thenThrow(new APIException("Price bucket size must be greater than 0"));
+
+        mockMvc.perform(get("/api/public/products/facets")
+                        .param("priceBucketSize", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Price bucket size must be greater than 0"));
+    }
+
     @Test
     public void testGetAllProducts_Success() throws Exception {
         ProductResponse response = new ProductResponse();
@@ -0,0 +1,49 @@
+package com.example.sklepElektroniczny.events;
+
+import com.example.sklepElektroniczny.configuration.RabbitMQConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DomainEventTest {
+
+    private final MessageConverter converter = new RabbitMQConfig()
+            .messageConverter(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void events_RoundTripThroughMessageConverter() {
+        List<DomainEvent> events = List.of(
+                DomainEvent.ProductDeleted.of(1L),
+                DomainEvent.StockChanged.of(2L, -3),
+                DomainEvent.OrderStatusChanged.of(3L, "Shipped"),
+                DomainEvent.CartChanged.of(4L, 5L, 2),
+                new DomainEvent.OrderPlaced(UUID.randomUUID(), Instant.now(), 6L, "a@b.com",
+                        new BigDecimal("19.99"), List.of(new DomainEvent.OrderPlaced.Line(7L, 1, 19.99))));
+
+        for (DomainEvent event : events) {
+            Message message = converter.toMessage(event, new MessageProperties());
+            Object restored = converter.fromMessage(message);
+
+            assertThat(restored).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void events_AreSerializedWithShortTypeAndWithoutNulls() {
+        Message message = converter.toMessage(new DomainEvent.ProductDeleted(null, null, 9L), new MessageProperties());
+        String json = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        assertThat(json).isEqualTo("{\"type\":\"ProductDeleted\",\"productId\":9}");
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.sklepElektroniczny.mapping;
+
+import com.example.sklepElektroniczny.dtos.*;
+import com.example.sklepElektroniczny.entity.*;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledModelMapperTest {
+
+    private final ModelMapper reflective = new ModelMapper();
+    private final ModelMapper compiled = new CompiledModelMapper();
+
+    @Test
+    void productMapping_matchesModelMapper() {
+        Product product = product();
+
+        assertThat(compiled.map(product, ProductDTO.class))
+                .usingRecursiveComparison()
+                .isEqualTo(reflective.map(product, ProductDTO.class));
+    }
+
+    @Test
+    void productDtoMapping_matchesModelMapper() {
+        ProductDTO dto = new ProductDTO(5L, "Mysz", "mysz.png", "Mysz bezprzewodowa", 7, 100.0, 10.0, 90.0);
+
+        assertThat(compiled.map(dto, Product.class))
+                .usingRecursiveComparison()
+                .isEqualTo(reflective.map(dto, Product.class));
+    }
+
+    @Test
+    void orderMapping_matchesModelMapper() {
+        Address address = new Address("Kraków", "Długa", 5, "30-001");
+        address.setAddressId(3L);
+
+        Payment payment = new Payment("card", "pg-1", "success", "ok", "Stripe");
+        payment.setPaymentId(4L);
+
+        Order order = new Order();
+        order.setOrderId(2L);
+        order.setEmail("user1@example.com");
+        order.setOrderDate(LocalDate.of(2024, 5, 1));
+        order.setTotalPrice(new BigDecimal("90.00"));
+        order.setStatus("Order accepted");
+        order.setAddress(address);
+        order.setPayment(payment);
+
+        OrderElement element = new OrderElement();
+        element.setOrderElementId(6L);
+        element.setProduct(product());
+        element.setQuantity(1);
+        element.setDiscount(10.0);
+        element.setOrderedProductPrice(90.0);
+        order.setOrderElements(List.of(element));
+
+        OrderDTO result = compiled.map(order, OrderDTO.class);
+
+        assertThat(result)
+                .usingRecursiveComparison()
+                .isEqualTo(reflective.map(order, OrderDTO.class));
+        assertThat(result.getAddressId()).isEqualTo(3L);
+    }
+
+    @Test
+    void categoryAndAddressMappings_matchModelMapper() {
+        Category category = new Category(1L, "Laptopy", null);
+        CategoryDTO categoryDTO = new CategoryDTO(2L, "Telefony");
+        Address address = new Address("Gdańsk", "Morska", 12, "80-001");
+        address.setAddressId(9L);
+        AddressDTO addressDTO = new AddressDTO(10L, "Poznań", "Polna", 1, "60-001");
+
+        assertThat(compiled.map(category, CategoryDTO.class))
+                .usingRecursiveComparison().isEqualTo(reflective.map(category, CategoryDTO.class));
+        assertThat(compiled.map(categoryDTO, Category.class))
+                .usingRecursiveComparison().isEqualTo(reflective.map(categoryDTO, Category.class));
+        assertThat(compiled.map(address, AddressDTO.class))
+                .usingRecursiveComparison().isEqualTo(reflective.map(address, AddressDTO.class));
+        assertThat(compiled.map(addressDTO, Address.class))
+                .usingRecursiveComparison().isEqualTo(reflective.map(addressDTO, Address.class));
+    }
+
+    @Test
+    void cartMapping_copiesIdAndTotal() {
+        Cart cart = new Cart();
+        cart.setCartId(8L);
+        cart.setTotalPrice(123.45);
+
+        CartDTO result = compiled.map(cart, CartDTO.class);
+
+        assertThat(result.getCartId()).isEqualTo(8L);
+        assertThat(result.getTotalPrice()).isEqualTo(123.45);
+        assertThat(result.getProducts()).isEmpty();
+    }
+
+    @Test
+    void subclassesOfMappedEntitiesUseCompiledConversion() {
+        Product proxyLike = new Product() { };
+        proxyLike.setProductId(11L);
+        proxyLike.setProductName("Proxy");
+
+        ProductDTO result = compiled.map(proxyLike, ProductDTO.class);
+
+        assertThat(result.getProductId()).isEqualTo(11L);
+        assertThat(result.getProductName()).isEqualTo("Proxy");
+    }
+
+    private Product product() {
+        Product product = new Product();
+        product.setProductId(1L);
+        product.setProductName("Laptop");
+        product.setDescription("Laptop biurowy");
+        product.setImage("default.png");
+        product.setQuantity(10);
+        product.setPrice(100.0);
+        product.setDiscount(10.0);
+        product.setSpecialPrice(90.0);
+        return product;
+    }
+}
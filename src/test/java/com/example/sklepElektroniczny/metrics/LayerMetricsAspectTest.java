@@ -0,0 +1,40 @@
+package com.example.sklepElektroniczny.metrics;
+
+import com.example.sklepElektroniczny.dtos.ProductDTO;
+import com.example.sklepElektroniczny.entity.Product;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LayerMetricsAspectTest {
+
+    @Test
+    void map_IsTimedBySourceAndDestinationType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ModelMapper());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LayerMetricsAspect(registry));
+        ModelMapper mapper = factory.getProxy();
+
+        Product product = new Product();
+        product.setProductId(1L);
+        product.setProductName("Laptop");
+        ProductDTO dto = mapper.map(product, ProductDTO.class);
+
+        assertThat(dto.getProductName()).isEqualTo("Laptop");
+        Timer timer = registry.get("shop.mapping")
+                .tag("source", "Product")
+                .tag("destination", "ProductDTO")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+
+        mapper.map(product, ProductDTO.class);
+
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(registry.find("shop.mapping").timers()).hasSize(1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sklepElektroniczny.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementMetricsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementCounter counter;
+    private SqlStatementMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        counter = new SqlStatementCounter(registry, 0.0);
+        filter = new SqlStatementMetricsFilter(counter, registry);
+    }
+
+    @Test
+    void doFilter_RecordsStatementsOfTheRequestUnderItsUriTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            counter.inspect("select * from products where product_id=?");
+            counter.inspect("select * from categories where category_id=?");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/public/products/{productId}");
+        });
+
+        DistributionSummary summary = registry.get("shop.sql.statements.per.request")
+                .tag("method", "GET")
+                .tag("uri", "/api/public/products/{productId}")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+        assertThat(registry.get("shop.sql.statements").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void inspect_OutsideRequestCountsOnlyTheTotal() throws Exception {
+        counter.inspect("select 1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(registry.get("shop.sql.statements").counter().count()).isEqualTo(1);
+        assertThat(registry.get("shop.sql.statements.per.request").tag("uri", "UNKNOWN").summary().totalAmount()).isZero();
+    }
+}
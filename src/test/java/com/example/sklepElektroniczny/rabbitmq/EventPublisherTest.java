@@ -0,0 +1,143 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventPublisherTest {
+
+    private EventPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_DeliversMessagesInBatches() throws Exception {
+        RecordingTransport transport = new RecordingTransport(0);
+        publisher = new EventPublisher(transport, 100, 3, 1, 10, 5);
+
+        for (int i = 0; i < 7; i++) {
+            publisher.publish(new OutboundMessage("", "productQueue", "event " + i));
+        }
+        publisher.start();
+        awaitSent(7);
+
+        assertThat(transport.delivered()).hasSize(7);
+        assertThat(transport.batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(3));
+        assertThat(transport.batchSizes).hasSizeLessThan(7);
+    }
+
+    @Test
+    void publish_RetriesFailedBatchWithBackoff() throws Exception {
+        RecordingTransport transport = new RecordingTransport(2);
+        publisher = new EventPublisher(transport, 100, 10, 1, 10, 5);
+        publisher.start();
+
+        publisher.publish(new OutboundMessage("", "productQueue", "event"));
+        awaitSent(1);
+
+        assertThat(transport.attempts).hasValue(3);
+        assertThat(transport.delivered()).containsExactly("event");
+    }
+
+    @Test
+    void publish_DropsPermanentlyFailingMessageAndDeliversTheRest() throws Exception {
+        RecordingTransport transport = new RecordingTransport(0, "poison");
+        publisher = new EventPublisher(transport, 100, 10, 1, 10, 3);
+
+        publisher.publish(new OutboundMessage("", "productQueue", "event 1"));
+        publisher.publish(new OutboundMessage("", "productQueue", "poison"));
+        publisher.publish(new OutboundMessage("", "productQueue", "event 2"));
+        publisher.start();
+        awaitSent(2);
+
+        publisher.publish(new OutboundMessage("", "productQueue", "event 3"));
+        awaitSent(3);
+
+        assertThat(transport.delivered()).containsExactly("event 1", "event 2", "event 3");
+        assertThat(publisher.undeliverableCount()).isEqualTo(1);
+        assertThat(publisher.droppedCount()).isZero();
+    }
+
+    @Test
+    void publish_InsideTransaction_WaitsForCommit() {
+        publisher = new EventPublisher(new RecordingTransport(0), 100, 10, 1, 10, 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publish(new OutboundMessage("", "productQueue", "event"));
+        assertThat(publisher.pending()).isZero();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(publisher.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void publish_DropsMessages_WhenQueueIsFull() {
+        publisher = new EventPublisher(new RecordingTransport(0), 2, 10, 1, 10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(new OutboundMessage("", "productQueue", "event " + i));
+        }
+
+        assertThat(publisher.pending()).isEqualTo(2);
+        assertThat(publisher.droppedCount()).isEqualTo(3);
+    }
+
+    private void awaitSent(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (publisher.sentCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(publisher.sentCount()).isEqualTo(expected);
+    }
+
+    private static class RecordingTransport implements EventTransport {
+
+        private final List<Object> payloads = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+        private final Object rejectedPayload;
+
+        RecordingTransport(int failures) {
+            this(failures, null);
+        }
+
+        RecordingTransport(int failures, Object rejectedPayload) {
+            this.failures = failures;
+            this.rejectedPayload = rejectedPayload;
+        }
+
+        @Override
+        public void send(List<OutboundMessage> batch) {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            if (batch.stream().anyMatch(message -> message.payload().equals(rejectedPayload))) {
+                throw new IllegalArgumentException("message rejected");
+            }
+            batchSizes.add(batch.size());
+            batch.forEach(message -> payloads.add(message.payload()));
+        }
+
+        List<Object> delivered() {
+            return payloads;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.sklepElektroniczny.rabbitmq;
+
+import com.example.sklepElektroniczny.cache.ProductCache;
+import com.example.sklepElektroniczny.configuration.RabbitMQConfig;
+import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.events.DomainEvent;
+import com.example.sklepElektroniczny.search.ProductSearchEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class MessageConsumerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductSearchEngine productSearchEngine;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MessageConverter converter = new RabbitMQConfig()
+            .messageConverter(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    private MessageConsumer messageConsumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        messageConsumer = new MessageConsumer(new ProcessedEventRegistry(100, 60), converter, rabbitTemplate,
+                productCache, productSearchEngine);
+        messageConsumer.bindTo(meterRegistry);
+    }
+
+    private Message toMessage(Object event, String queue) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(queue);
+        return converter.toMessage(event, properties);
+    }
+
+    private Message toMessage(Object event) {
+        return toMessage(event, "shop.catalog.node.test");
+    }
+
+    @Test
+    void receiveCatalogEvents_HandlesRedeliveredEventOnce() {
+        Message message = toMessage(DomainEvent.ProductUpdated.of(productWithId(3L)));
+
+        messageConsumer.receiveCatalogEvents(List.of(message, message));
+        messageConsumer.receiveCatalogEvents(List.of(message));
+
+        verify(productCache, times(1)).evict(3L);
+        verify(productSearchEngine, times(1)).refresh(3L);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void receiveCatalogEvents_RefreshesSearchIndexForEveryCatalogEvent() {
+        messageConsumer.receiveCatalogEvents(List.of(
+                toMessage(DomainEvent.ProductCreated.of(productWithId(1L))),
+                toMessage(DomainEvent.StockChanged.of(2L, -1)),
+                toMessage(DomainEvent.ProductDeleted.of(3L))));
+
+        verify(productSearchEngine).refresh(1L);
+        verify(productSearchEngine).refresh(2L);
+        verify(productSearchEngine).refresh(3L);
+        verify(productCache).evict(2L);
+        verify(productCache).evict(3L);
+    }
+
+    @Test
+    void receiveEvents_DeadLettersPoisonMessageAndProcessesTheRest() {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(RabbitMQConfig.ORDER_QUEUE);
+        Message poison = new Message("not json".getBytes(StandardCharsets.UTF_8), properties);
+        Message valid = toMessage(DomainEvent.OrderStatusChanged.of(4L, "Shipped"), RabbitMQConfig.ORDER_QUEUE);
+
+        messageConsumer.receiveEvents(List.of(poison, valid));
+
+        verify(rabbitTemplate).send(eq(RabbitMQConfig.DEAD_LETTER_EXCHANGE), eq(RabbitMQConfig.ORDER_QUEUE),
+                argThat(message -> message == poison
+                        && message.getMessageProperties().getHeader(MessageConsumer.EXCEPTION_HEADER) != null));
+        assertThat(meterRegistry.get("shop.events.consumed").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void receiveCatalogEvents_CountsFailureWithoutDeadLetteringAndRetriesOnRedelivery() {
+        Message message = toMessage(DomainEvent.ProductDeleted.of(5L));
+        doThrow(new IllegalStateException("cache unavailable")).doNothing().when(productCache).evict(5L);
+
+        messageConsumer.receiveCatalogEvents(List.of(message));
+        messageConsumer.receiveCatalogEvents(List.of(message));
+
+        verifyNoInteractions(rabbitTemplate);
+        verify(productCache, times(2)).evict(5L);
+        assertThat(meterRegistry.get("shop.events.catalog.failed").functionCounter().count()).isEqualTo(1);
+    }
+
+    private static Product productWithId(Long id) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Laptop");
+        return product;
+    }
+}
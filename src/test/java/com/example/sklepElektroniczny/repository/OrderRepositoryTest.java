@@ -0,0 +1,111 @@
+package com.example.sklepElektroniczny.repository;
+
+import com.example.sklepElektroniczny.entity.*;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("jpatest")
+class OrderRepositoryTest {
+
+    private static final int LINES_PER_ORDER = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        category = entityManager.persist(new Category(null, "Laptopy", null));
+    }
+
+    @Test
+    void orderHistory_statementCountDoesNotGrowWithHistory() {
+        long shortHistory = readHistory("short", 2);
+        long longHistory = readHistory("long", 25);
+
+        assertThat(longHistory).isEqualTo(shortHistory);
+        assertThat(longHistory).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void orderHistory_doesNotLoadCartElementsOfProducts() {
+        persistHistory("anna", 2);
+
+        List<Order> orders = orderRepository.findByEmail("anna@example.com");
+
+        Product product = orders.get(0).getOrderElements().get(0).getProduct();
+        assertThat(Hibernate.isInitialized(product)).isTrue();
+        assertThat(Hibernate.isInitialized(product.getProducts())).isFalse();
+    }
+
+    private long readHistory(String userName, int orders) {
+        persistHistory(userName, orders);
+        statistics.clear();
+
+        List<Order> history = orderRepository.findByEmail(userName + "@example.com");
+        history.forEach(order -> {
+            order.getPayment().getMethod();
+            order.getAddress().getCity();
+            order.getOrderElements().forEach(element -> element.getProduct().getProductName());
+        });
+
+        assertThat(history).hasSize(orders);
+        assertThat(history).allSatisfy(order -> assertThat(order.getOrderElements()).hasSize(LINES_PER_ORDER));
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    private void persistHistory(String userName, int orders) {
+        User user = entityManager.persist(new User(userName, userName + "@example.com", "password"));
+        Address address = new Address("Warszawa", "Marszalkowska", 1, "00-001");
+        address.setUser(user);
+        address = entityManager.persist(address);
+
+        for (int o = 0; o < orders; o++) {
+            Payment payment = entityManager.persist(new Payment("card", "pg" + o, "success", "ok", "Stripe"));
+            Order order = new Order();
+            order.setEmail(user.getEmail());
+            order.setOrderDate(LocalDate.now());
+            order.setStatus("Order accepted");
+            order.setTotalPrice(BigDecimal.valueOf(3000));
+            order.setPayment(payment);
+            order.setAddress(address);
+            order = entityManager.persist(order);
+            for (int i = 0; i < LINES_PER_ORDER; i++) {
+                Product product = new Product();
+                product.setProductName(userName + " laptop " + o + "-" + i);
+                product.setDescription("Opis laptopa " + i);
+                product.setQuantity(10);
+                product.setPrice(1000.0);
+                product.setSpecialPrice(1000.0);
+                product.setCategory(category);
+                product = entityManager.persist(product);
+                entityManager.persist(new OrderElement(null, product, order, 1, 0.0, product.getSpecialPrice()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
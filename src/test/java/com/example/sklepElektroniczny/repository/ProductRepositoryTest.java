@@ -0,0 +1,138 @@
+package com.example.sklepElektroniczny.repository;
+
+import com.example.sklepElektroniczny.entity.*;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("jpatest")
+class ProductRepositoryTest {
+
+    private static final int PRODUCTS = 20;
+    private static final int CARTS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartElementRepository cartElementRepository;
+
+    private Statistics statistics;
+    private Category category;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        category = entityManager.persist(new Category(null, "Laptopy", null));
+
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Laptop " + i);
+            product.setDescription("Opis laptopa " + i);
+            product.setQuantity(10);
+            product.setPrice(1000.0 + i);
+            product.setSpecialPrice(1000.0 + i);
+            product.setCategory(category);
+            products.add(entityManager.persist(product));
+        }
+
+        for (int u = 0; u < CARTS; u++) {
+            User user = entityManager.persist(new User("user" + u, "user" + u + "@example.com", "password"));
+            Cart cart = new Cart();
+            cart.setUser(user);
+            cart = entityManager.persist(cart);
+            for (Product product : products) {
+                entityManager.persist(new CartElement(null, cart, product, 1, 0.0, product.getPrice()));
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingPage_doesNotLoadCartElements() {
+        Specification<Product> byCategory = (root, query, criteriaBuilder) ->
+                criteriaBuilder.like(root.get("category").get("categoryName"), "Laptopy");
+        statistics.clear();
+
+        Page<Product> page = productRepository.findAll(byCategory, PageRequest.of(0, 10, Sort.by("productId")));
+        page.getContent().forEach(product -> product.getProductName());
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(Hibernate.isInitialized(page.getContent().get(0).getProducts())).isFalse();
+    }
+
+    @Test
+    void categoryPage_doesNotLoadCartElements() {
+        Category managedCategory = entityManager.find(Category.class, category.getCategoryId());
+        statistics.clear();
+
+        Page<Product> page = productRepository.findByCategoryOrderByPriceAsc(managedCategory, PageRequest.of(1, 5));
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cartQueries_answerWithoutLoadingCarts() {
+        Long productId = products.get(0).getProductId();
+        statistics.clear();
+
+        List<Long> cartIds = cartRepository.findCartIdsByProductId(productId);
+        boolean inCart = cartRepository.existsCartWithProduct(productId);
+
+        assertThat(cartIds).hasSize(CARTS);
+        assertThat(inCart).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void bulkRepricing_updatesLinesAndTotalsOfAllCartsInTwoStatements() {
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Cart c SET c.totalPrice = (SELECT SUM(ci.price * ci.quantity) FROM CartElement ci WHERE ci.cart = c)")
+                .executeUpdate();
+        Product repriced = products.get(0);
+        statistics.clear();
+
+        cartRepository.repriceTotalsForProduct(repriced.getProductId(), 899.99);
+        int lines = cartElementRepository.updatePriceForProduct(repriced.getProductId(), 899.99);
+
+        assertThat(lines).isEqualTo(CARTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        // 1000 + 1001 + ... + 1019 = 20190, minus the 100.01 price cut
+        assertThat(cartRepository.findAll()).allSatisfy(cart -> {
+            assertThat(cart.getTotalPrice()).isEqualTo(20089.99);
+            assertThat(cartElementRepository.sumLineTotalsByCartId(cart.getCartId())).isEqualByComparingTo("20089.99");
+        });
+    }
+}
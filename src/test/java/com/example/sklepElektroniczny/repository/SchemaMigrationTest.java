@@ -0,0 +1,86 @@
+package com.example.sklepElektroniczny.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Applies the migrations after V1 to databases holding data from before the constraints existed,
+ * as they look when an existing schema is baselined at V1.
+ */
+class SchemaMigrationTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void migrate_MergesDuplicateCartLinesAndRecomputesTotals() {
+        DataSource dataSource = createDatabase("duplicate_cart_lines");
+        migrate(dataSource, "1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (user_id, username, email, password) VALUES"
+                + " (1, 'jan', 'jan@example.com', 'x'), (2, 'ola', 'ola@example.com', 'x')");
+        jdbcTemplate.update("INSERT INTO products (product_id, product_name, price, discount, special_price)"
+                + " VALUES (1, 'Laptop', 100, 0, 100), (2, 'Mysz', 20, 0, 20)");
+        // cart 1 counts only one of its duplicate lines; cart 2 has no duplicates and keeps its stored total
+        jdbcTemplate.update("INSERT INTO carts (cart_id, user_id, total_price) VALUES (1, 1, 140), (2, 2, 25)");
+        jdbcTemplate.update("INSERT INTO cart_element (cart_element_id, cart_id, product_id, quantity, discount, price)"
+                + " VALUES (1, 1, 1, 1, 0, 100), (2, 1, 1, 1, 0, 100), (3, 1, 2, 2, 0, 20), (4, 2, 2, 1, 0, 20)");
+
+        migrate(dataSource, "latest");
+
+        assertThat(jdbcTemplate.query("SELECT cart_element_id, quantity FROM cart_element ORDER BY cart_element_id",
+                (rs, rowNum) -> tuple(rs.getLong(1), rs.getInt(2))))
+                .containsExactly(tuple(1L, 2), tuple(3L, 2), tuple(4L, 1));
+        assertThat(jdbcTemplate.queryForObject("SELECT total_price FROM carts WHERE cart_id = 1", Double.class))
+                .isEqualTo(240.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT total_price FROM carts WHERE cart_id = 2", Double.class))
+                .isEqualTo(25.0);
+    }
+
+    @Test
+    void migrate_CreatesOrderItemSequenceMissingFromBaselinedSchema() {
+        DataSource dataSource = createDatabase("missing_sequence");
+        migrate(dataSource, "1");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SEQUENCE order_items_seq");
+        jdbcTemplate.update("INSERT INTO orders (order_id, email) VALUES (1, 'jan@example.com')");
+        jdbcTemplate.update("INSERT INTO order_items (order_element_id, order_id, quantity, discount,"
+                + " ordered_product_price) VALUES (7, 1, 1, 0, 10)");
+
+        migrate(dataSource, "latest");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('order_items_seq')", Long.class)).isGreaterThan(7L);
+    }
+
+    private static DataSource createDatabase(String name) {
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return postgres.getDatabase("postgres", name);
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        Flyway.configure().dataSource(dataSource).target(target).load().migrate();
+    }
+}
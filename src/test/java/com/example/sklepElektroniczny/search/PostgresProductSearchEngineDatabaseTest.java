@@ -0,0 +1,99 @@
+package com.example.sklepElektroniczny.search;
+
+import com.example.sklepElektroniczny.dtos.CategoryFacetDTO;
+import com.example.sklepElektroniczny.dtos.ProductFacetsDTO;
+import com.example.sklepElektroniczny.service.ProductFacetService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the Flyway migrations on a real PostgreSQL process (no Docker needed) and queries the
+ * generated {@code search_vector} column through {@link PostgresProductSearchEngine}.
+ */
+class PostgresProductSearchEngineDatabaseTest {
+
+    private static EmbeddedPostgres postgres;
+    private static PostgresProductSearchEngine engine;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO category (category_id, category_name) VALUES (1, 'Laptopy'), (2, 'Telefony')");
+        insertProduct(1, "Laptop Gamingowy", "Wydajny laptop z kartą RTX", 5000.0, 1);
+        insertProduct(2, "Torba na laptopa", "Pasuje do każdego notebooka", 150.0, 1);
+        insertProduct(3, "Smartfon Pro", "Telefon z ekranem OLED", 3000.0, 2);
+        insertProduct(4, "Etui", "Etui na smartfon, pasuje do laptopa? Nie", 50.0, 2);
+
+        engine = new PostgresProductSearchEngine(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void search_ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(engine.search("laptop", null, ProductSearchEngine.RELEVANCE, true)).containsExactly(1L, 2L, 4L);
+        assertThat(engine.search("lap rtx", null, ProductSearchEngine.RELEVANCE, true)).containsExactly(1L);
+        assertThat(engine.search("laptop oled", null, ProductSearchEngine.RELEVANCE, true)).isEmpty();
+    }
+
+    @Test
+    void search_filtersByCategoryAndSortsByField() {
+        assertThat(engine.search("laptop", "Laptopy", "price", true)).containsExactly(2L, 1L);
+        assertThat(engine.search("laptop", null, "price", false)).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void page_countsAllMatchesAndReturnsOneSlice() {
+        ProductSearchEngine.SearchPage page = engine.page("laptop", null, "price", true, 1, 1);
+
+        assertThat(page.productIds()).containsExactly(2L);
+        assertThat(page.totalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void seek_continuesAfterCursorPosition() {
+        assertThat(engine.seek("laptop", null, "price", true, null, null, 2)).containsExactly(4L, 2L);
+        assertThat(engine.seek("laptop", null, "price", true, 150.0, 2L, 2)).containsExactly(1L);
+        assertThat(engine.seek("laptop", null, "price", false, 150.0, 2L, 2)).containsExactly(4L);
+        assertThat(engine.seek("laptop", null, "productName", true, "LAPTOP GAMINGOWY", 1L, 5)).containsExactly(2L);
+        assertThat(engine.count("laptop", "Telefony")).isEqualTo(1);
+    }
+
+    @Test
+    void facets_matchKeywordInsideTheFacetQuery() {
+        ProductFacetsDTO facets = new ProductFacetService(jdbcTemplate, engine).getFacets("laptop", 1000);
+
+        assertThat(facets.getTotalElements()).isEqualTo(3);
+        assertThat(facets.getCategories())
+                .extracting(CategoryFacetDTO::getCategoryName, CategoryFacetDTO::getCount)
+                .containsExactly(tuple("Laptopy", 2L), tuple("Telefony", 1L));
+        assertThat(new ProductFacetService(jdbcTemplate, engine).getFacets("&|!", 1000).getTotalElements()).isZero();
+    }
+
+    private static void insertProduct(long id, String name, String description,
+                                      double price, long categoryId) {
+        jdbcTemplate.update("INSERT INTO products (product_id, product_name, description, quantity, price, discount,"
+                        + " special_price, category_id) VALUES (?, ?, ?, 10, ?, 0, ?, ?)",
+                id, name, description, price, price, categoryId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sklepElektroniczny.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostgresProductSearchEngineTest {
+
+    @Test
+    void prefixQuery_requiresEveryWordAsPrefix() {
+        assertThat(PostgresProductSearchEngine.prefixQuery("Laptop  Pro")).isEqualTo("laptop:* & pro:*");
+        assertThat(PostgresProductSearchEngine.prefixQuery("Słuchawki")).isEqualTo("słuchawki:*");
+    }
+
+    @Test
+    void prefixQuery_dropsTsqueryOperators() {
+        assertThat(PostgresProductSearchEngine.prefixQuery("lap & !top | (x):*")).isEqualTo("lap:* & top:* & x:*");
+        assertThat(PostgresProductSearchEngine.prefixQuery("&|!")).isNull();
+        assertThat(PostgresProductSearchEngine.prefixQuery(" ")).isNull();
+    }
+
+    @Test
+    void orderBy_usesOnlyKnownColumns() {
+        assertThat(PostgresProductSearchEngine.orderBy("price", false))
+                .isEqualTo(" ORDER BY p.price DESC, p.product_id");
+        assertThat(PostgresProductSearchEngine.orderBy("price; DROP TABLE products", true))
+                .isEqualTo(" ORDER BY ts_rank(p.search_vector, query) DESC, p.product_id");
+        assertThat(PostgresProductSearchEngine.orderBy(null, true))
+                .startsWith(" ORDER BY ts_rank");
+    }
+
+    @Test
+    void seekCondition_comparesSortValueAndIdInTheSortDirection() {
+        assertThat(PostgresProductSearchEngine.seekCondition("p.price", true))
+                .isEqualTo(" AND (p.price, p.product_id) > (?, ?)");
+        assertThat(PostgresProductSearchEngine.seekCondition("lower(p.product_name)", false))
+                .isEqualTo(" AND (lower(p.product_name), p.product_id) < (lower(?), ?)");
+    }
+}
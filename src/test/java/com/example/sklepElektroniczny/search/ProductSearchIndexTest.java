@@ -0,0 +1,166 @@
+package com.example.sklepElektroniczny.search;
+
+import com.example.sklepElektroniczny.entity.Category;
+import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.repository.CategoryRepository;
+import com.example.sklepElektroniczny.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new ProductSearchIndex(productRepository, categoryRepository);
+
+        Category laptops = new Category(1L, "Laptopy", null);
+        Category phones = new Category(2L, "Telefony", null);
+        when(categoryRepository.findByCategoryName("Laptopy")).thenReturn(laptops);
+        when(categoryRepository.findByCategoryName("Telefony")).thenReturn(phones);
+
+        when(productRepository.findAllWithCategory()).thenReturn(List.of(
+                product(1L, "Laptop Gamingowy", "Wydajny laptop z kartą RTX", 5000.0, laptops),
+                product(2L, "Torba na laptopa", "Pasuje do każdego notebooka", 150.0, laptops),
+                product(3L, "Smartfon Pro", "Telefon z ekranem OLED", 3000.0, phones),
+                product(4L, "Etui", "Etui na smartfon, pasuje do laptopa? Nie", 50.0, phones)));
+        index.rebuild();
+    }
+
+    @Test
+    void search_ranksNameMatchesBeforeDescriptionMatches() {
+        List<Long> result = index.search("laptop");
+
+        assertThat(result).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void search_matchesSubstringsInsideWords() {
+        assertThat(index.search("mart")).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void search_requiresEveryWordToMatch() {
+        assertThat(index.search("laptop rtx")).containsExactly(1L);
+        assertThat(index.search("laptop oled")).isEmpty();
+    }
+
+    @Test
+    void search_ignoresCaseAndDiacritics() {
+        assertThat(index.search("KARTA")).containsExactly(1L);
+        assertThat(index.search("każdego")).containsExactly(2L);
+    }
+
+    @Test
+    void search_filtersByCategoryAndSortsByField() {
+        assertThat(index.search("laptop", "Laptopy", "price", true)).containsExactly(2L, 1L);
+        assertThat(index.search("laptop", null, "price", false)).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void facetCounts_groupMatchesByCategoryAndPriceBucket() {
+        assertThat(index.facetCounts("laptop", 1000)).containsExactlyInAnyOrder(
+                new ProductSearchEngine.FacetCount(1L, 5, 1),
+                new ProductSearchEngine.FacetCount(1L, 0, 1),
+                new ProductSearchEngine.FacetCount(2L, 0, 1));
+        assertThat(index.facetCounts("laptop oled", 1000)).isEmpty();
+    }
+
+    @Test
+    void seek_continuesAfterCursorPositionEvenWhenThatProductIsGone() {
+        assertThat(index.seek("laptop", null, "price", true, null, null, 2)).containsExactly(4L, 2L);
+        assertThat(index.seek("laptop", null, "price", true, 150.0, 2L, 2)).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.seek("laptop", null, "price", true, 150.0, 2L, 2)).containsExactly(1L);
+        assertThat(index.seek("laptop", null, "price", false, 5000.0, 1L, 5)).containsExactly(4L);
+        assertThat(index.count("laptop", null)).isEqualTo(2);
+    }
+
+    @Test
+    void seek_comparesProductNamesWithoutCase() {
+        assertThat(index.seek("laptop", null, "productName", true, "laptop gamingowy", 1L, 5)).containsExactly(2L);
+    }
+
+    @Test
+    void search_resolvesCategoryNameAtQueryTime() {
+        when(categoryRepository.findByCategoryName("Notebooki")).thenReturn(new Category(1L, "Notebooki", null));
+
+        assertThat(index.search("laptop", "Notebooki", "price", true)).containsExactly(2L, 1L);
+        assertThat(index.search("laptop", "Brak", "price", true)).isEmpty();
+    }
+
+    @Test
+    void index_insideTransaction_appliesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(product(5L, "Plecak", "Plecak miejski", 200.0, null));
+            index.remove(1L);
+
+            assertThat(index.search("plecak")).isEmpty();
+            assertThat(index.search("gamingowy")).containsExactly(1L);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(index.search("plecak")).containsExactly(5L);
+            assertThat(index.search("gamingowy")).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void refresh_reReadsOrRemovesTheProduct() {
+        Product restocked = product(3L, "Smartfon Pro Max", "Telefon z ekranem OLED", 3000.0, null);
+        when(productRepository.findWithCategoryById(3L)).thenReturn(Optional.of(restocked));
+        when(productRepository.findWithCategoryById(4L)).thenReturn(Optional.empty());
+
+        index.refresh(3L);
+        index.refresh(4L);
+
+        assertThat(index.search("max")).containsExactly(3L);
+        assertThat(index.search("etui")).isEmpty();
+    }
+
+    @Test
+    void index_replacesAndRemovesDocuments() {
+        Product renamed = product(2L, "Plecak", "Plecak miejski", 200.0, null);
+
+        index.index(renamed);
+        assertThat(index.search("torba")).isEmpty();
+        assertThat(index.search("plecak")).containsExactly(2L);
+
+        index.remove(2L);
+        assertThat(index.search("plecak")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private Product product(Long id, String name, String description, double price, Category category) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setDescription(description);
+        product.setPrice(price);
+        product.setSpecialPrice(price);
+        product.setQuantity(10);
+        product.setCategory(category);
+        return product;
+    }
+}
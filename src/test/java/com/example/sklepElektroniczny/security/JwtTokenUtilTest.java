@@ -0,0 +1,111 @@
+package com.example.sklepElektroniczny.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class JwtTokenUtilTest {
+
+    private static final String SECRET = "Ysdf89234y2oiuj23njsdf0923h23b4kjb234jkn23b4kjb234";
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = tokenUtil(SECRET, 60_000);
+    }
+
+    private static JwtTokenUtil tokenUtil(String secret, int expirationMs) {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "jwtSecret", secret);
+        ReflectionTestUtils.setField(util, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(util, "jwtCookie", "SpringCookie");
+        util.init();
+        return util;
+    }
+
+    @Test
+    void parseClaims_ReturnsSubjectAndExpiryInSingleParse() {
+        String token = jwtTokenUtil.generateTokenFromUsername("user1");
+
+        Claims claims = jwtTokenUtil.parseClaims(token);
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("user1");
+        assertThat(claims.getExpiration()).isAfter(new Date());
+        assertThat(jwtTokenUtil.validateJwtToken(token)).isTrue();
+        assertThat(jwtTokenUtil.getUserNameFromJwtToken(token)).isEqualTo("user1");
+    }
+
+    @Test
+    void parseClaims_ReturnsNull_ForTamperedExpiredOrForeignTokens() {
+        String token = jwtTokenUtil.generateTokenFromUsername("user1");
+        String expired = tokenUtil(SECRET, -1_000).generateTokenFromUsername("user1");
+        String foreign = tokenUtil("QW5vdGhlclNlY3JldEtleVRoYXRJc0xvbmdFbm91Z2hGb3JIUzI1Ng==", 60_000)
+                .generateTokenFromUsername("user1");
+
+        assertThat(jwtTokenUtil.parseClaims(token.substring(0, token.length() - 2))).isNull();
+        assertThat(jwtTokenUtil.parseClaims(expired)).isNull();
+        assertThat(jwtTokenUtil.parseClaims(foreign)).isNull();
+        assertThat(jwtTokenUtil.parseClaims("not-a-token")).isNull();
+    }
+
+    @Test
+    void verifiedTokenCache_ReturnsSubjectUntilTokenExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 300);
+
+        cache.put("valid", "user1", new Date(System.currentTimeMillis() + 60_000));
+        cache.put("expired", "user1", new Date(System.currentTimeMillis() - 1_000));
+
+        assertThat(cache.getUsername("valid")).isEqualTo("user1");
+        assertThat(cache.getUsername("expired")).isNull();
+        assertThat(cache.getUsername("unknown")).isNull();
+    }
+
+    @Test
+    void userPrincipalCache_LoadsOnceUntilEvicted() {
+        UserPrincipalCache cache = new UserPrincipalCache(100, 60);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = username -> {
+            loads.incrementAndGet();
+            return new User(username, "secret", List.of());
+        };
+
+        UserDetails first = cache.get("user1", loader);
+        UserDetails second = cache.get("user1", loader);
+        cache.evict("user1");
+        cache.get("user1", loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void userPrincipalCache_DoesNotCachePrincipalLoadedDuringEviction() {
+        UserPrincipalCache cache = new UserPrincipalCache(100, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("user1", username -> {
+            loads.incrementAndGet();
+            // roles are revoked while this request still holds the old principal
+            cache.evict(username);
+            return new User(username, "secret", List.of());
+        });
+        cache.get("user1", username -> {
+            loads.incrementAndGet();
+            return new User(username, "secret", List.of());
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+}
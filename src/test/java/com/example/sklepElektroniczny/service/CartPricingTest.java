@@ -0,0 +1,47 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.entity.Cart;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CartPricingTest {
+
+    private final CartPricing cartPricing = new CartPricing();
+
+    @Test
+    void addLine_manySmallAmountsDoNotDrift() {
+        Cart cart = new Cart();
+        cart.setTotalPrice(0.0);
+
+        for (int i = 0; i < 1000; i++) {
+            cartPricing.addLine(cart, 0.1, 1);
+        }
+
+        assertEquals(100.0, cart.getTotalPrice());
+        assertEquals(new BigDecimal("100.00"), cartPricing.total(cart));
+    }
+
+    @Test
+    void replaceLine_appliesOnlyTheDifference() {
+        Cart cart = new Cart();
+        cart.setTotalPrice(149.97);
+
+        cartPricing.replaceLine(cart, 49.99, 3, 39.99, 2);
+
+        assertEquals(79.98, cart.getTotalPrice());
+    }
+
+    @Test
+    void removeLine_backToZero() {
+        Cart cart = new Cart();
+        cart.setTotalPrice(0.0);
+        cartPricing.addLine(cart, 19.99, 3);
+
+        cartPricing.removeLine(cart, 19.99, 3);
+
+        assertEquals(0.0, cart.getTotalPrice());
+    }
+}
@@ -6,6 +6,7 @@ import com.example.sklepElektroniczny.entity.CartElement;
 import com.example.sklepElektroniczny.entity.Product;
 import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.ResourceNotFoundException;
+import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
 import com.example.sklepElektroniczny.repository.CartElementRepository;
 import com.example.sklepElektroniczny.repository.CartRepository;
 import com.example.sklepElektroniczny.repository.ProductRepository;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.modelmapper.ModelMapper;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +40,12 @@ class CartServiceTest {
     @Mock
     ModelMapper mapper;
 
+    @Mock
+    MessageProducer messageProducer;
+
+    @Spy
+    CartPricing cartPricing = new CartPricing();
+
     @InjectMocks
     @Spy
     CartService cartService;
@@ -137,6 +145,7 @@ class CartServiceTest {
         verify(cartElementRepo).save(cartElement);
         verify(cartRepo).save(cart);
         assertEquals(3, cartElement.getQuantity());
+        assertEquals(200.0, cart.getTotalPrice());
     }
 
     @Test
@@ -162,6 +171,38 @@ class CartServiceTest {
 
         assertTrue(result.contains("Mouse"));
         verify(cartElementRepo).deleteCartItemByProductIdAndCartId(cartId, productId);
+        assertEquals(100.0, cart.getTotalPrice());
+    }
+
+    @Test
+    void recalculateTotal_correctsDriftedTotalFromAggregate() {
+        Cart cart = new Cart();
+        cart.setCartId(3L);
+        cart.setTotalPrice(0.30000000000000004);
+
+        when(cartRepo.findById(3L)).thenReturn(Optional.of(cart));
+        when(cartElementRepo.sumLineTotalsByCartId(3L)).thenReturn(new BigDecimal("0.60"));
+
+        BigDecimal total = cartService.recalculateTotal(3L);
+
+        assertEquals(new BigDecimal("0.60"), total);
+        assertEquals(0.6, cart.getTotalPrice());
+    }
+
+    @Test
+    void clearCart_deletesAllElementsInOneStatement() {
+        Cart cart = new Cart();
+        cart.setCartId(1L);
+        cart.setTotalPrice(250.0);
+
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartElementRepo.deleteAllByCartId(1L)).thenReturn(30);
+
+        cartService.clearCart(1L);
+
+        assertEquals(0.0, cart.getTotalPrice());
+        verify(cartElementRepo).deleteAllByCartId(1L);
+        verify(cartElementRepo, never()).deleteCartItemByProductIdAndCartId(anyLong(), anyLong());
     }
 
     @Test
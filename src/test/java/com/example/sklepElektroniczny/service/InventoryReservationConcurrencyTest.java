@@ -0,0 +1,128 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.exceptions.APIException;
+import com.example.sklepElektroniczny.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires many parallel checkouts at a single product against a real database and checks that
+ * stock is never oversold. Each checkout runs in its own committed transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("jpatest")
+@Import(InventoryReservationService.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryReservationConcurrencyTest {
+
+    private static final int STOCK = 50;
+    private static final int CHECKOUTS = 200;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private InventoryReservationService inventoryReservation;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setProductName("Flash sale phone");
+        product.setDescription("Limited stock");
+        product.setQuantity(STOCK);
+        product.setPrice(999.0);
+        product.setSpecialPrice(999.0);
+        productId = productRepository.save(product).getProductId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void parallelCheckouts_neverOversellSingleProduct() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> checkouts = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            checkouts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transaction.executeWithoutResult(status -> inventoryReservation.reserve(Map.of(productId, 1)));
+                    reserved.incrementAndGet();
+                } catch (APIException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> checkout : checkouts) {
+            checkout.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(reserved).hasValue(STOCK);
+        assertThat(rejected).hasValue(CHECKOUTS - STOCK);
+        assertThat(product.getQuantity()).isZero();
+        assertThat(product.getVersion()).isEqualTo((long) STOCK);
+    }
+
+    @Test
+    void multiLineReservation_rollsBackEarlierLines_whenLaterLineLacksStock() {
+        Product scarce = new Product();
+        scarce.setProductName("Scarce item");
+        scarce.setDescription("Only one left");
+        scarce.setQuantity(1);
+        Long scarceId = productRepository.save(scarce).getProductId();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> inventoryReservation.reserve(Map.of(productId, 5, scarceId, 2)));
+        } catch (APIException expected) {
+            // the whole order is rejected
+        }
+
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantity()).isEqualTo(STOCK);
+        assertThat(productRepository.findById(scarceId).orElseThrow().getQuantity()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.dtos.OrderFilter;
+import com.example.sklepElektroniczny.entity.*;
+import com.example.sklepElektroniczny.exceptions.APIException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("jpatest")
+class OrderExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private OrderExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        // A fetch size smaller than the result makes the cursor fetch more than once.
+        exportService = new OrderExportService(jdbcTemplate, objectMapper, 2, Duration.ofMinutes(10));
+
+        Category category = entityManager.persist(new Category(null, "Laptopy", null));
+        Product laptop = persistProduct(category, "Laptop, 15\"");
+        Product mouse = persistProduct(category, "Mysz");
+
+        persistOrder("anna@example.com", LocalDate.of(2025, 1, 10), "Order accepted", laptop, mouse);
+        persistOrder("jan@example.com", LocalDate.of(2025, 2, 20), "Shipped", mouse);
+        persistOrder("anna@example.com", LocalDate.of(2025, 3, 5), "Order accepted");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csv_hasOneRowPerOrderLine() throws Exception {
+        List<String> lines = export(null, OrderExportService.Format.CSV).lines().toList();
+
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(0)).startsWith("order_id,order_date,email");
+        assertThat(lines.get(1)).contains("anna@example.com").contains("\"Laptop, 15\"\"\"");
+        assertThat(lines.get(2)).contains("anna@example.com").contains("Mysz");
+        assertThat(lines.get(3)).contains("jan@example.com");
+        assertThat(lines.get(4)).contains("2025-03-05").endsWith(",,,,,");
+    }
+
+    @Test
+    void ndjson_groupsLinesUnderTheirOrder() throws Exception {
+        List<JsonNode> orders = export(null, OrderExportService.Format.NDJSON).lines()
+                .map(this::readTree)
+                .toList();
+
+        assertThat(orders).hasSize(3);
+        assertThat(orders.get(0).get("email").asText()).isEqualTo("anna@example.com");
+        assertThat(orders.get(0).get("lines")).hasSize(2);
+        assertThat(orders.get(0).get("lines").get(0).get("productName").asText()).isEqualTo("Laptop, 15\"");
+        assertThat(orders.get(1).get("lines")).hasSize(1);
+        assertThat(orders.get(2).get("lines")).isEmpty();
+    }
+
+    @Test
+    void filter_isAppliedInTheQuery() throws Exception {
+        OrderFilter filter = new OrderFilter("Order accepted", "anna@example.com", LocalDate.of(2025, 2, 1), null);
+
+        List<String> lines = export(filter, OrderExportService.Format.NDJSON).lines().toList();
+
+        assertThat(lines).hasSize(1);
+        assertThat(readTree(lines.get(0)).get("orderDate").asText()).isEqualTo("2025-03-05");
+    }
+
+    @Test
+    void parseFormat_rejectsUnknownFormat() {
+        assertThat(OrderExportService.parseFormat("csv")).isEqualTo(OrderExportService.Format.CSV);
+        assertThatThrownBy(() -> OrderExportService.parseFormat("xlsx")).isInstanceOf(APIException.class);
+    }
+
+    private String export(OrderFilter filter, OrderExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Product persistProduct(Category category, String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Opis " + name);
+        product.setQuantity(10);
+        product.setPrice(100.0);
+        product.setSpecialPrice(100.0);
+        product.setCategory(category);
+        return entityManager.persist(product);
+    }
+
+    private void persistOrder(String email, LocalDate date, String status, Product... products) {
+        Payment payment = entityManager.persist(new Payment("card", "pg", "success", "ok", "Stripe"));
+        Order order = new Order();
+        order.setEmail(email);
+        order.setOrderDate(date);
+        order.setStatus(status);
+        order.setTotalPrice(BigDecimal.valueOf(100L * products.length));
+        order.setPayment(payment);
+        order = entityManager.persist(order);
+        for (Product product : products) {
+            entityManager.persist(new OrderElement(null, product, order, 1, 0.0, product.getSpecialPrice()));
+        }
+    }
+}
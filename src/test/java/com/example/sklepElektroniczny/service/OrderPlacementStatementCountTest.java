@@ -0,0 +1,97 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.cache.ProductCache;
+import com.example.sklepElektroniczny.entity.*;
+import com.example.sklepElektroniczny.mapping.CompiledModelMapper;
+import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
+import com.example.sklepElektroniczny.repository.CartElementRepository;
+import com.example.sklepElektroniczny.util.AuthUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that placing an order issues the same number of statements whatever the size of the cart:
+ * order elements are inserted in one JDBC batch and the cart is emptied with one bulk delete.
+ */
+@DataJpaTest
+@ActiveProfiles("jpatest")
+@Import({OrderService.class, CartService.class, CartPricing.class, AuthUtil.class, ProductCache.class,
+        InventoryReservationService.class, CompiledModelMapper.class})
+class OrderPlacementStatementCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartElementRepository cartElementRepository;
+
+    @MockitoBean
+    private MessageProducer messageProducer;
+
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        category = entityManager.persist(new Category(null, "Laptopy", null));
+    }
+
+    @Test
+    void createOrder_statementCountDoesNotGrowWithCartLines() {
+        long smallCart = placeOrder("small", 3);
+        long largeCart = placeOrder("large", 30);
+
+        assertThat(largeCart).isLessThanOrEqualTo(smallCart);
+        assertThat(largeCart).isLessThan(20);
+        assertThat(cartElementRepository.count()).isZero();
+    }
+
+    private long placeOrder(String userName, int lines) {
+        User user = entityManager.persist(new User(userName, userName + "@example.com", "password"));
+        Address address = new Address("Warszawa", "Marszalkowska", 1, "00-001");
+        address.setUser(user);
+        address = entityManager.persist(address);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart = entityManager.persist(cart);
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setProductName(userName + " laptop " + i);
+            product.setDescription("Opis laptopa " + i);
+            product.setQuantity(100);
+            product.setPrice(1000.0);
+            product.setSpecialPrice(1000.0);
+            product.setCategory(category);
+            product = entityManager.persist(product);
+            entityManager.persist(new CartElement(null, cart, product, 1, 0.0, product.getSpecialPrice()));
+            total += product.getSpecialPrice();
+        }
+        cart.setTotalPrice(total);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        orderService.createOrder(user.getEmail(), address.getAddressId(), "card", "Stripe", "pg1", "success", "ok");
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+}
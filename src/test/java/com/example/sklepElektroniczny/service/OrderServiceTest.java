@@ -1,15 +1,25 @@
 package com.example.sklepElektroniczny.service;
 
+import com.example.sklepElektroniczny.cache.ProductCache;
 import com.example.sklepElektroniczny.dtos.OrderDTO;
 import com.example.sklepElektroniczny.dtos.OrderElementDTO;
+import com.example.sklepElektroniczny.dtos.OrderFilter;
+import com.example.sklepElektroniczny.dtos.OrderResponse;
 import com.example.sklepElektroniczny.entity.*;
 import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.ResourceNotFoundException;
+import com.example.sklepElektroniczny.events.DomainEvent;
+import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
 import com.example.sklepElektroniczny.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
 import org.mockito.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -44,6 +54,15 @@ class OrderServiceTest {
     @Mock
     private ProductRepository productRepo;
 
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private InventoryReservationService inventoryReservation;
+
+    @Mock
+    private MessageProducer messageProducer;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -116,12 +135,11 @@ class OrderServiceTest {
         OrderElementDTO orderElementDTO = new OrderElementDTO();
 
         when(cartRepo.findCartByEmail(email)).thenReturn(cart);
+        when(cartService.recalculateTotal(cart.getCartId())).thenReturn(new BigDecimal("100.00"));
         when(addressRepo.findById(addressId)).thenReturn(Optional.of(address));
         when(paymentRepo.save(any(Payment.class))).thenReturn(payment);
         when(orderRepo.save(any(Order.class))).thenReturn(storedOrder);
         when(elementRepo.saveAll(anyList())).thenReturn(List.of(orderElement));
-        when(cartService.deleteProductFromCart(anyLong(), anyLong())).thenReturn(null); // POPRAWKA
-        when(productRepo.save(any(Product.class))).thenReturn(product);
         when(mapper.map(storedOrder, OrderDTO.class)).thenReturn(orderDTO);
         when(mapper.map(orderElement, OrderElementDTO.class)).thenReturn(orderElementDTO);
 
@@ -142,12 +160,55 @@ class OrderServiceTest {
         verify(cartRepo).findCartByEmail(email);
         verify(addressRepo).findById(addressId);
         verify(paymentRepo).save(any(Payment.class));
-        verify(orderRepo).save(any(Order.class));
+        verify(orderRepo).save(argThat((Order order) -> new BigDecimal("100.00").equals(order.getTotalPrice())));
         verify(elementRepo).saveAll(anyList());
-        verify(cartService).deleteProductFromCart(cart.getCartId(), product.getProductId());
-        verify(productRepo).save(product);
+        verify(cartService).clearCart(cart.getCartId());
+        verify(cartService, never()).deleteProductFromCart(anyLong(), anyLong());
+        verify(inventoryReservation).reserve(Map.of(5L, 2));
+        verify(productRepo, never()).save(any(Product.class));
+        verify(productCache).evict(product.getProductId());
+        verify(messageProducer).publish(argThat(event ->
+                event instanceof DomainEvent.StockChanged changed && changed.productId().equals(5L) && changed.delta() == -2));
+        verify(messageProducer).publish(argThat(event ->
+                event instanceof DomainEvent.OrderPlaced placed && placed.orderId().equals(100L) && placed.lines().size() == 1));
     }
     
+    @Test
+    void createOrder_insufficientStock_propagatesReservationFailure() {
+        String email = "test@example.com";
+        Long addressId = 1L;
+
+        Product product = new Product();
+        product.setProductId(5L);
+
+        CartElement first = new CartElement();
+        first.setProduct(product);
+        first.setQuantity(2);
+        CartElement second = new CartElement();
+        second.setProduct(product);
+        second.setQuantity(3);
+
+        Cart cart = new Cart();
+        cart.setCartId(10L);
+        cart.setTotalPrice(100.0);
+        cart.setCartElements(List.of(first, second));
+
+        Order storedOrder = new Order();
+        storedOrder.setOrderId(100L);
+
+        when(cartRepo.findCartByEmail(email)).thenReturn(cart);
+        when(addressRepo.findById(addressId)).thenReturn(Optional.of(new Address()));
+        when(paymentRepo.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepo.save(any(Order.class))).thenReturn(storedOrder);
+        when(elementRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new APIException("Not enough stock for product 5"))
+                .when(inventoryReservation).reserve(Map.of(5L, 5));
+
+        assertThrows(APIException.class, () -> orderService.createOrder(
+                email, addressId, "card", "Stripe", "pg123", "success", "ok"));
+        verify(productCache, never()).evict(anyLong());
+    }
+
     @Test
     void createOrder_cartNotFound_throwsResourceNotFound() {
         String email = "notfound@example.com";
@@ -213,11 +274,14 @@ class OrderServiceTest {
     }
 
     @Test
-    void getAllOrders_returnsOrderDTOList() {
+    @SuppressWarnings("unchecked")
+    void getAllOrders_returnsRequestedPage() {
         Order order1 = new Order();
         Order order2 = new Order();
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("orderId").descending());
 
-        when(orderRepo.findAll()).thenReturn(List.of(order1, order2));
+        when(orderRepo.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(order1, order2), pageable, 5));
 
         OrderDTO dto1 = new OrderDTO();
         OrderDTO dto2 = new OrderDTO();
@@ -225,12 +289,20 @@ class OrderServiceTest {
         when(mapper.map(order1, OrderDTO.class)).thenReturn(dto1);
         when(mapper.map(order2, OrderDTO.class)).thenReturn(dto2);
 
-        List<OrderDTO> results = orderService.getAllOrders();
+        OrderResponse response = orderService.getAllOrders(1, 2, "orderId", "desc",
+                new OrderFilter("Order accepted", null, LocalDate.of(2025, 1, 1), null));
 
-        assertEquals(2, results.size());
-        assertTrue(results.contains(dto1));
-        assertTrue(results.contains(dto2));
-        verify(orderRepo).findAll();
+        assertEquals(List.of(dto1, dto2), response.getContent());
+        assertEquals(1, response.getPageNumber());
+        assertEquals(2, response.getPageSize());
+        assertEquals(5, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+        assertFalse(response.isLastPage());
+
+        ArgumentCaptor<Pageable> pageCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(orderRepo).findAll(any(Specification.class), pageCaptor.capture());
+        assertEquals(pageable, pageCaptor.getValue());
+        verify(orderRepo, never()).findAll();
     }
 
     @Test
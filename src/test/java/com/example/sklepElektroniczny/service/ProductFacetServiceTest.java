@@ -0,0 +1,162 @@
+package com.example.sklepElektroniczny.service;
+
+import com.example.sklepElektroniczny.dtos.CategoryFacetDTO;
+import com.example.sklepElektroniczny.dtos.PriceBucketDTO;
+import com.example.sklepElektroniczny.dtos.ProductFacetsDTO;
+import com.example.sklepElektroniczny.entity.Category;
+import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.exceptions.APIException;
+import com.example.sklepElektroniczny.search.ProductSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("jpatest")
+class ProductFacetServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ProductSearchEngine searchEngine = mock(ProductSearchEngine.class);
+
+    private ProductFacetService facetService;
+    private List<Product> laptops;
+
+    @BeforeEach
+    void setUp() {
+        facetService = new ProductFacetService(jdbcTemplate, searchEngine);
+        // a backend without its own grouping, unless a test says otherwise
+        when(searchEngine.facetCounts(any(), anyDouble())).thenReturn(null);
+
+        Category laptopCategory = entityManager.persist(new Category(null, "Laptopy", null));
+        Category phoneCategory = entityManager.persist(new Category(null, "Telefony", null));
+
+        laptops = new ArrayList<>();
+        laptops.add(persistProduct(laptopCategory, "Laptop A", 2100.0));
+        laptops.add(persistProduct(laptopCategory, "Laptop B", 2400.0));
+        laptops.add(persistProduct(laptopCategory, "Laptop C", 3600.0));
+        persistProduct(phoneCategory, "Telefon A", 900.0);
+        persistProduct(phoneCategory, "Telefon B", 2200.0);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void facets_withoutKeyword_countAllProducts() {
+        ProductFacetsDTO facets = facetService.getFacets(null, 1000);
+
+        assertThat(facets.getTotalElements()).isEqualTo(5);
+        assertThat(facets.getCategories())
+                .extracting(CategoryFacetDTO::getCategoryName, CategoryFacetDTO::getCount)
+                .containsExactly(tuple("Laptopy", 3L), tuple("Telefony", 2L));
+        assertThat(facets.getPriceBuckets())
+                .extracting(PriceBucketDTO::getFrom, PriceBucketDTO::getTo, PriceBucketDTO::getCount)
+                .containsExactly(tuple(0.0, 1000.0, 1L), tuple(2000.0, 3000.0, 3L), tuple(3000.0, 4000.0, 1L));
+    }
+
+    @Test
+    void facets_withKeyword_coverOnlyMatchingProducts() {
+        List<Long> laptopIds = laptops.stream().map(Product::getProductId).toList();
+        when(searchEngine.search(eq("laptop"), isNull(), any(), anyBoolean())).thenReturn(laptopIds);
+
+        ProductFacetsDTO facets = facetService.getFacets("laptop", 500);
+
+        assertThat(facets.getTotalElements()).isEqualTo(3);
+        assertThat(facets.getCategories()).extracting(CategoryFacetDTO::getCategoryName).containsExactly("Laptopy");
+        assertThat(facets.getPriceBuckets())
+                .extracting(PriceBucketDTO::getFrom, PriceBucketDTO::getCount)
+                .containsExactly(tuple(2000.0, 2L), tuple(3500.0, 1L));
+    }
+
+    @Test
+    void facets_withManyMatches_mergeChunkCounts() {
+        List<Long> ids = new ArrayList<>(laptops.stream().map(Product::getProductId).toList());
+        // ids that no longer exist pad the match list past one chunk
+        LongStream.range(0, ProductFacetService.IDS_PER_QUERY).forEach(i -> ids.add(1_000_000 + i));
+        when(searchEngine.search(eq("laptop"), isNull(), any(), anyBoolean())).thenReturn(ids);
+
+        ProductFacetsDTO facets = facetService.getFacets("laptop", 1000);
+
+        assertThat(facets.getTotalElements()).isEqualTo(3);
+        assertThat(facets.getCategories()).extracting(CategoryFacetDTO::getCount).containsExactly(3L);
+    }
+
+    @Test
+    void facets_withSqlMatch_filterInsideTheFacetQuery() {
+        when(searchEngine.sqlMatch("laptop"))
+                .thenReturn(new ProductSearchEngine.SqlMatch("p.product_name LIKE ?", List.of("Laptop%")));
+
+        ProductFacetsDTO facets = facetService.getFacets("laptop", 500);
+
+        assertThat(facets.getTotalElements()).isEqualTo(3);
+        assertThat(facets.getCategories()).extracting(CategoryFacetDTO::getCategoryName).containsExactly("Laptopy");
+        verify(searchEngine, never()).search(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void facets_withIndexCounts_resolveCategoryNamesOnly() {
+        Long laptopCategoryId = laptops.get(0).getCategory().getCategoryId();
+        when(searchEngine.facetCounts("laptop", 500)).thenReturn(List.of(
+                new ProductSearchEngine.FacetCount(laptopCategoryId, 4, 2),
+                new ProductSearchEngine.FacetCount(laptopCategoryId, 7, 1),
+                new ProductSearchEngine.FacetCount(null, 4, 1)));
+
+        ProductFacetsDTO facets = facetService.getFacets("laptop", 500);
+
+        assertThat(facets.getTotalElements()).isEqualTo(4);
+        assertThat(facets.getCategories())
+                .extracting(CategoryFacetDTO::getCategoryName, CategoryFacetDTO::getCount)
+                .containsExactly(tuple("Laptopy", 3L), tuple(null, 1L));
+        assertThat(facets.getPriceBuckets())
+                .extracting(PriceBucketDTO::getFrom, PriceBucketDTO::getCount)
+                .containsExactly(tuple(2000.0, 3L), tuple(3500.0, 1L));
+        verify(searchEngine, never()).search(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void facets_rejectInvalidBucketSize() {
+        for (double bucketSize : new double[]{0, -500, 0.001, 1e-300, Double.NaN, Double.POSITIVE_INFINITY}) {
+            assertThatThrownBy(() -> facetService.getFacets(null, bucketSize))
+                    .isInstanceOf(APIException.class)
+                    .hasMessage("Price bucket size must be a finite number of at least 0.01");
+        }
+        assertThat(facetService.getFacets(null, ProductFacetService.MIN_BUCKET_SIZE).getTotalElements()).isEqualTo(5);
+    }
+
+    private Product persistProduct(Category category, String name, double specialPrice) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Opis " + name);
+        product.setQuantity(10);
+        product.setPrice(specialPrice);
+        product.setSpecialPrice(specialPrice);
+        product.setCategory(category);
+        return entityManager.persist(product);
+    }
+}
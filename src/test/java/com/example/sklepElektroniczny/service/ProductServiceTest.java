@@ -1,20 +1,27 @@
 package com.example.sklepElektroniczny.service;
 
-import com.example.sklepElektroniczny.dtos.CartDTO;
+import com.example.sklepElektroniczny.cache.ProductCache;
+import com.example.sklepElektroniczny.dtos.ProductCursorResponse;
 import com.example.sklepElektroniczny.dtos.ProductDTO;
+import com.example.sklepElektroniczny.dtos.ProductResponse;
 import com.example.sklepElektroniczny.entity.Category;
-import com.example.sklepElektroniczny.entity.Cart;
 import com.example.sklepElektroniczny.entity.Product;
+import com.example.sklepElektroniczny.events.DomainEvent;
 import com.example.sklepElektroniczny.exceptions.APIException;
 import com.example.sklepElektroniczny.exceptions.ResourceNotFoundException;
 import com.example.sklepElektroniczny.rabbitmq.MessageProducer;
 import com.example.sklepElektroniczny.repository.CartRepository;
 import com.example.sklepElektroniczny.repository.CategoryRepository;
 import com.example.sklepElektroniczny.repository.ProductRepository;
+import com.example.sklepElektroniczny.search.ProductSearchEngine;
+import com.example.sklepElektroniczny.util.ProductCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.io.IOException;
@@ -43,6 +50,13 @@ public class ProductServiceTest {
     @Mock
     private MessageProducer messageProducer;
 
+    // Real default page(), so keyword paging is exercised on top of the stubbed search()
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private ProductSearchEngine productSearchEngine;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60);
+
     @InjectMocks
     private ProductService productService;
 
@@ -90,7 +104,9 @@ public class ProductServiceTest {
         ProductDTO result = productService.addProduct(categoryId, inputDto);
 
         assertThat(result.getProductId()).isEqualTo(1L);
-        verify(messageProducer).sendProductCreatedMessage("Dodano produkt: " + savedProduct.getProductName());
+        verify(productSearchEngine).index(savedProduct);
+        verify(messageProducer).publish(argThat(event -> event instanceof DomainEvent.ProductCreated created
+                && created.productId().equals(1L) && created.categoryId().equals(categoryId)));
     }
 
     @Test
@@ -134,6 +150,23 @@ public class ProductServiceTest {
         assertThat(result.getProductName()).isEqualTo("Product");
     }
 
+    @Test
+    void getProductById_ServesRepeatedReadsFromCache() {
+        Long productId = 1L;
+        Product product = new Product();
+        product.setProductId(productId);
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(modelMapper.map(product, ProductDTO.class)).thenReturn(new ProductDTO());
+
+        productService.getProductById(productId);
+        productService.getProductById(productId);
+
+        verify(productRepository, times(1)).findById(productId);
+        assertThat(productService.getProductCacheStats().getHitCount()).isEqualTo(1L);
+        assertThat(productService.getProductCacheStats().getMissCount()).isEqualTo(1L);
+    }
+
     @Test
     void getProductById_ThrowsResourceNotFoundException() {
         Long productId = 1L;
@@ -143,17 +176,114 @@ public class ProductServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    void searchProductByKeyword_HydratesOnlyRequestedPageInRankedOrder() {
+        Product first = new Product();
+        first.setProductId(7L);
+        Product second = new Product();
+        second.setProductId(3L);
+
+        ProductDTO firstDto = new ProductDTO();
+        firstDto.setProductId(7L);
+        ProductDTO secondDto = new ProductDTO();
+        secondDto.setProductId(3L);
+
+        when(productSearchEngine.search("laptop", null, "relevance", true)).thenReturn(List.of(5L, 7L, 3L, 9L, 1L));
+        when(productRepository.findAllById(List.of(7L, 3L))).thenReturn(List.of(second, first));
+        when(modelMapper.map(first, ProductDTO.class)).thenReturn(firstDto);
+        when(modelMapper.map(second, ProductDTO.class)).thenReturn(secondDto);
+
+        ProductResponse response = productService.searchProductByKeyword("laptop", 1, 2, "relevance", "asc");
+
+        assertThat(response.getContent()).extracting(ProductDTO::getProductId).containsExactly(7L, 3L);
+        assertThat(response.getTotalElements()).isEqualTo(5L);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        assertThat(response.isLastPage()).isFalse();
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchProductByKeyword_ThrowsAPIException_WhenNothingMatches() {
+        when(productSearchEngine.search("brak", null, "productId", true)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> productService.searchProductByKeyword("brak", 0, 10, "productId", "asc"))
+                .isInstanceOf(APIException.class)
+                .hasMessage("Product not found with this keyword");
+    }
+
+    @Test
+    void getProductsByCursor_FetchesOneExtraRowAndSkipsCount() {
+        List<Product> rows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setPrice(100.0 * id);
+            rows.add(product);
+        }
+
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(rows);
+        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenAnswer(invocation -> {
+            ProductDTO dto = new ProductDTO();
+            dto.setProductId(invocation.<Product>getArgument(0).getProductId());
+            return dto;
+        });
+
+        ProductCursorResponse response = productService.getProductsByCursor(null, 2, "price", "asc", null, null, false);
+
+        assertThat(response.getContent()).extracting(ProductDTO::getProductId).containsExactly(1L, 2L);
+        assertThat(response.isLastPage()).isFalse();
+        assertThat(response.getTotalElements()).isNull();
+
+        ProductCursor next = ProductCursor.decode(response.getNextCursor());
+        assertThat(next.getSortBy()).isEqualTo("price");
+        assertThat(next.isAscending()).isTrue();
+        assertThat(next.getProductId()).isEqualTo(2L);
+        assertThat(next.getSortValue()).isEqualTo(200.0);
+        verify(productRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getProductsByCursor_WithKeyword_ContinuesAfterCursorProduct() {
+        Product previous = new Product();
+        previous.setProductId(7L);
+        previous.setPrice(10.0);
+        String cursor = ProductCursor.after(previous, "price", true).encode();
+
+        Product last = new Product();
+        last.setProductId(3L);
+
+        ProductDTO lastDto = new ProductDTO();
+        lastDto.setProductId(3L);
+
+        when(productSearchEngine.seek("laptop", null, "price", true, 10.0, 7L, 3)).thenReturn(List.of(3L));
+        when(productSearchEngine.count("laptop", null)).thenReturn(3L);
+        when(productRepository.findAllById(List.of(3L))).thenReturn(List.of(last));
+        when(modelMapper.map(last, ProductDTO.class)).thenReturn(lastDto);
+
+        ProductCursorResponse response = productService.getProductsByCursor(cursor, 2, "productId", "desc", "laptop", null, true);
+
+        assertThat(response.getContent()).extracting(ProductDTO::getProductId).containsExactly(3L);
+        assertThat(response.getNextCursor()).isNull();
+        assertThat(response.isLastPage()).isTrue();
+        assertThat(response.getTotalElements()).isEqualTo(3L);
+        verify(productSearchEngine, never()).search(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void getProductsByCursor_ThrowsAPIException_WhenCursorIsMalformed() {
+        assertThatThrownBy(() -> productService.getProductsByCursor("not-a-cursor", 10, "productId", "asc", null, null, false))
+                .isInstanceOf(APIException.class)
+                .hasMessage("Invalid cursor");
+    }
+
     @Test
     void deleteProduct_ThrowsAPIException_WhenProductInCart() {
         Long productId = 1L;
         Product product = new Product();
         product.setProductId(productId);
 
-        Cart cart = new Cart();
-        cart.setCartId(10L);
-
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findCartsByProductId(productId)).thenReturn(List.of(cart));
+        when(cartRepository.existsCartWithProduct(productId)).thenReturn(true);
 
         assertThatThrownBy(() -> productService.deleteProduct(productId))
                 .isInstanceOf(APIException.class)
@@ -167,7 +297,7 @@ public class ProductServiceTest {
         product.setProductId(productId);
 
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findCartsByProductId(productId)).thenReturn(Collections.emptyList());
+        when(cartRepository.existsCartWithProduct(productId)).thenReturn(false);
 
         doNothing().when(productRepository).delete(product);
         when(modelMapper.map(product, ProductDTO.class)).thenReturn(new ProductDTO());
@@ -175,6 +305,7 @@ public class ProductServiceTest {
         ProductDTO result = productService.deleteProduct(productId);
 
         verify(productRepository).delete(product);
+        verify(productSearchEngine).remove(productId);
     }
 
     @Test
@@ -204,12 +335,6 @@ public class ProductServiceTest {
         savedProduct.setDiscount(5);
         savedProduct.setSpecialPrice(190.0);
 
-        Cart cart = new Cart();
-        cart.setCartId(10L);
-
-        CartDTO cartDTO = new CartDTO();
-        cartDTO.setCartId(10L);
-
         ProductDTO savedDto = new ProductDTO();
         savedDto.setProductId(productId);
         savedDto.setProductName("New Name");
@@ -217,16 +342,100 @@ public class ProductServiceTest {
         when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
         when(modelMapper.map(updateDto, Product.class)).thenReturn(mappedProduct);
         when(productRepository.save(existingProduct)).thenReturn(savedProduct);
-        when(cartRepository.findCartsByProductId(productId)).thenReturn(List.of(cart));
-        when(modelMapper.map(cart, CartDTO.class)).thenReturn(cartDTO);
         when(modelMapper.map(savedProduct, ProductDTO.class)).thenReturn(savedDto);
 
         ProductDTO result = productService.updateProduct(productId, updateDto);
 
-        verify(cartService).updateProductInCarts(anyLong(), eq(productId));
+        verify(cartService).repriceProductInCarts(productId, 190.0);
+        verify(cartRepository, never()).findCartIdsByProductId(any());
+        verify(productCache).evict(productId);
         assertThat(result.getProductName()).isEqualTo("New Name");
     }
 
+    @Test
+    void updateProduct_RetriesWithFreshRow_WhenStockChangedConcurrently() {
+        Long productId = 1L;
+        Product staleProduct = new Product();
+        staleProduct.setProductId(productId);
+        staleProduct.setVersion(3L);
+        Product freshProduct = new Product();
+        freshProduct.setProductId(productId);
+        freshProduct.setVersion(4L);
+
+        ProductDTO updateDto = new ProductDTO();
+        updateDto.setProductName("New Name");
+        Product mappedProduct = new Product();
+        mappedProduct.setProductName("New Name");
+        mappedProduct.setQuantity(7);
+
+        when(modelMapper.map(updateDto, Product.class)).thenReturn(mappedProduct);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(staleProduct), Optional.of(freshProduct));
+        when(productRepository.save(staleProduct)).thenThrow(new ObjectOptimisticLockingFailureException(Product.class, productId));
+        when(productRepository.save(freshProduct)).thenReturn(freshProduct);
+        when(modelMapper.map(freshProduct, ProductDTO.class)).thenReturn(updateDto);
+
+        productService.updateProduct(productId, updateDto);
+
+        verify(cartService, never()).repriceProductInCarts(any(), any());
+
+        verify(productRepository, times(2)).findById(productId);
+        assertThat(freshProduct.getProductName()).isEqualTo("New Name");
+        assertThat(freshProduct.getQuantity()).isEqualTo(7);
+        verify(productSearchEngine).index(freshProduct);
+    }
+
+    @Test
+    void updateProduct_KeepsConcurrentStockReservation_WhenRetrying() {
+        Long productId = 1L;
+        Product staleProduct = new Product();
+        staleProduct.setProductId(productId);
+        staleProduct.setQuantity(10);
+        staleProduct.setVersion(3L);
+        // an order reserved 2 units between the first read and the save
+        Product freshProduct = new Product();
+        freshProduct.setProductId(productId);
+        freshProduct.setQuantity(8);
+        freshProduct.setVersion(4L);
+
+        ProductDTO updateDto = new ProductDTO();
+        updateDto.setProductName("New Name");
+        Product mappedProduct = new Product();
+        mappedProduct.setProductName("New Name");
+        mappedProduct.setQuantity(15);
+
+        when(modelMapper.map(updateDto, Product.class)).thenReturn(mappedProduct);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(staleProduct), Optional.of(freshProduct));
+        when(productRepository.save(staleProduct)).thenThrow(new ObjectOptimisticLockingFailureException(Product.class, productId));
+        when(productRepository.save(freshProduct)).thenReturn(freshProduct);
+        when(modelMapper.map(freshProduct, ProductDTO.class)).thenReturn(updateDto);
+
+        productService.updateProduct(productId, updateDto);
+
+        assertThat(freshProduct.getQuantity()).isEqualTo(13);
+    }
+
+    @Test
+    void updateProduct_LeavesQuantityAlone_WhenNotProvided() {
+        Long productId = 1L;
+        Product existingProduct = new Product();
+        existingProduct.setProductId(productId);
+        existingProduct.setQuantity(8);
+
+        ProductDTO updateDto = new ProductDTO();
+        updateDto.setProductName("New Name");
+        Product mappedProduct = new Product();
+        mappedProduct.setProductName("New Name");
+
+        when(modelMapper.map(updateDto, Product.class)).thenReturn(mappedProduct);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(existingProduct)).thenReturn(existingProduct);
+        when(modelMapper.map(existingProduct, ProductDTO.class)).thenReturn(updateDto);
+
+        productService.updateProduct(productId, updateDto);
+
+        assertThat(existingProduct.getQuantity()).isEqualTo(8);
+    }
+
     @Test
     void updateProductImage_Success() throws IOException {
         Long productId = 1L;
@@ -255,6 +464,7 @@ public class ProductServiceTest {
         ProductDTO result = productService.updateProductImage(productId, mockFile);
 
         assertThat(result.getImage()).isEqualTo("new-image.png");
+        verify(productCache).evict(productId);
     }
 }
 
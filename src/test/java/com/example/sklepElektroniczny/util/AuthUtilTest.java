@@ -0,0 +1,68 @@
+package com.example.sklepElektroniczny.util;
+
+import com.example.sklepElektroniczny.entity.User;
+import com.example.sklepElektroniczny.repository.UserRepository;
+import com.example.sklepElektroniczny.security.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class AuthUtilTest {
+
+    @Mock
+    private UserRepository userRepo;
+
+    @InjectMocks
+    private AuthUtil authUtil;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        CustomUserDetails principal = new CustomUserDetails(5L, "user1", "user1@example.com", "secret", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCurrentUserEmailAndId_AnsweredFromPrincipalWithoutQuery() {
+        assertThat(authUtil.getCurrentUserEmail()).isEqualTo("user1@example.com");
+        assertThat(authUtil.getCurrentUserId()).isEqualTo(5L);
+        verifyNoInteractions(userRepo);
+    }
+
+    @Test
+    void getCurrentUser_LoadsEntityOncePerRequest() {
+        User user = new User("user1", "user1@example.com", "secret");
+        when(userRepo.findByUserName("user1")).thenReturn(Optional.of(user));
+
+        assertThat(authUtil.getCurrentUser()).isSameAs(user);
+        assertThat(authUtil.getCurrentUser()).isSameAs(user);
+        verify(userRepo, times(1)).findByUserName(anyString());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        authUtil.getCurrentUser();
+        verify(userRepo, times(2)).findByUserName(anyString());
+    }
+}